@@ -7,6 +7,7 @@ import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioRepository;
 import io.github.cursodsousa.sbootexpsecurity.domain.security.TokenService;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.IndiceNomesService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -32,6 +33,8 @@ public class AuthenticationController {
     private UsuarioRepository repository;
     @Autowired
     private TokenService tokenService;
+    @Autowired
+    private IndiceNomesService indiceNomesService;
 
     @PostMapping("/login")
     public ResponseEntity login(@RequestBody @Valid AuthenticationDTO data){
@@ -58,6 +61,7 @@ public class AuthenticationController {
         Usuario newUser = new Usuario(data.login(), encryptedPassword,data.nome(),data.email(), role);
 
         this.repository.save(newUser);
+        indiceNomesService.atualizarUsuarioAposCommit(newUser);
 
         return ResponseEntity.ok().build();
     }
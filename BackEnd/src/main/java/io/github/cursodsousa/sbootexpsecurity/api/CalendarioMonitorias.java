@@ -0,0 +1,148 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.AgendaMonitoriaService.Ocorrencia;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.AgendaMonitoriaService.Recorrencia;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Escreve a agenda das monitorias direto na resposta: ocorrências em JSON, geradas uma a uma,
+ * ou um feed iCalendar (RFC 5545) com um VEVENT recorrente (RRULE semanal) por monitoria.
+ */
+final class CalendarioMonitorias {
+
+    private static final DateTimeFormatter DATA_HORA_LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATA_HORA_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final int LIMITE_LINHA = 75;
+
+    private CalendarioMonitorias() {
+    }
+
+    static void enviarJson(HttpServletResponse response, ObjectMapper objectMapper,
+                           Iterator<Ocorrencia> ocorrencias) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Sem flush a cada ocorrência: o buffer do gerador só é descarregado quando enche e uma vez no final
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            gerador.writeStartArray();
+            while (ocorrencias.hasNext()) {
+                escritor.writeValue(gerador, ocorrencias.next());
+            }
+            gerador.writeEndArray();
+            gerador.flush();
+        }
+    }
+
+    static void enviarIcs(HttpServletResponse response, List<Recorrencia> recorrencias, ZoneId zona) throws IOException {
+        response.setContentType("text/calendar; charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"monitorias.ics\"");
+
+        Writer saida = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        String tzid = zona.getId();
+        String dtstamp = DATA_HORA_UTC.format(Instant.now());
+
+        linha(saida, "BEGIN:VCALENDAR");
+        linha(saida, "VERSION:2.0");
+        linha(saida, "PRODID:-//BioConnect//Monitorias//PT-BR");
+        linha(saida, "CALSCALE:GREGORIAN");
+        linha(saida, "METHOD:PUBLISH");
+        linha(saida, "X-WR-CALNAME:Monitorias");
+        fusoHorario(saida, zona);
+
+        for (Recorrencia recorrencia : recorrencias) {
+            LocalDate primeiraData = recorrencia.primeiraData();
+            if (primeiraData == null) continue;
+            LocalDateTime primeira = primeiraData.atTime(recorrencia.horarioInicio());
+
+            Instant ate = recorrencia.dataTermino().atTime(recorrencia.horarioInicio()).atZone(zona).toInstant();
+            String dias = recorrencia.dias().stream().map(CalendarioMonitorias::diaIcs).collect(Collectors.joining(","));
+
+            linha(saida, "BEGIN:VEVENT");
+            linha(saida, "UID:monitoria-" + recorrencia.id() + "@bioconnect");
+            linha(saida, "DTSTAMP:" + dtstamp);
+            linha(saida, "DTSTART;TZID=" + tzid + ":" + DATA_HORA_LOCAL.format(primeira));
+            linha(saida, "DTEND;TZID=" + tzid + ":"
+                    + DATA_HORA_LOCAL.format(primeiraData.atTime(recorrencia.horarioTermino())));
+            linha(saida, "RRULE:FREQ=WEEKLY;BYDAY=" + dias + ";UNTIL=" + DATA_HORA_UTC.format(ate));
+            linha(saida, "SUMMARY:" + texto("Monitoria - " + recorrencia.disciplina()));
+            if (recorrencia.sala() != null) linha(saida, "LOCATION:" + texto(recorrencia.sala()));
+            linha(saida, "DESCRIPTION:" + texto("Curso: " + recorrencia.curso()));
+            linha(saida, "STATUS:" + status(recorrencia.status()));
+            linha(saida, "END:VEVENT");
+        }
+
+        linha(saida, "END:VCALENDAR");
+        saida.flush();
+    }
+
+    // VTIMEZONE mínimo com o deslocamento atual do fuso (suficiente para fusos sem horário de verão)
+    private static void fusoHorario(Writer saida, ZoneId zona) throws IOException {
+        String deslocamento = zona.getRules().getOffset(Instant.now()).getId().replace(":", "");
+        if ("Z".equals(deslocamento)) deslocamento = "+0000";
+
+        linha(saida, "BEGIN:VTIMEZONE");
+        linha(saida, "TZID:" + zona.getId());
+        linha(saida, "BEGIN:STANDARD");
+        linha(saida, "DTSTART:19700101T000000");
+        linha(saida, "TZOFFSETFROM:" + deslocamento);
+        linha(saida, "TZOFFSETTO:" + deslocamento);
+        linha(saida, "END:STANDARD");
+        linha(saida, "END:VTIMEZONE");
+    }
+
+    private static String status(StatusMonitoria status) {
+        if (status == StatusMonitoria.APROVADA) return "CONFIRMED";
+        if (status == null || status == StatusMonitoria.PENDENTE) return "TENTATIVE";
+        return "CANCELLED";
+    }
+
+    private static String diaIcs(DayOfWeek dia) {
+        return dia.name().substring(0, 2);
+    }
+
+    private static String texto(String valor) {
+        return valor == null ? "" : valor.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                .replace("\r\n", "\\n").replace("\n", "\\n");
+    }
+
+    // Linhas com no máximo 75 octetos; as continuações começam com espaço
+    private static void linha(Writer saida, String conteudo) throws IOException {
+        int octetos = 0;
+        for (int i = 0; i < conteudo.length(); ) {
+            int ponto = conteudo.codePointAt(i);
+            int tamanho = ponto < 0x80 ? 1 : ponto < 0x800 ? 2 : ponto < 0x10000 ? 3 : 4;
+            if (octetos + tamanho > LIMITE_LINHA) {
+                saida.write("\r\n ");
+                octetos = 1;
+            }
+            saida.write(Character.toChars(ponto));
+            octetos += tamanho;
+            i += Character.charCount(ponto);
+        }
+        saida.write("\r\n");
+    }
+}
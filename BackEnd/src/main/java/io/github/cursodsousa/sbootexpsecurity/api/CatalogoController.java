@@ -1,7 +1,6 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
-import io.github.cursodsousa.sbootexpsecurity.domain.entity.Curso;
-import io.github.cursodsousa.sbootexpsecurity.domain.entity.Disciplina;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ItemCatalogoDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.CatalogoService;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.MonitoriaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,12 +21,12 @@ public class CatalogoController {
     private CatalogoService catalogoService;
 
     @GetMapping("/disciplinas")
-    public ResponseEntity<List<Disciplina>> listarDisciplinas() {
+    public ResponseEntity<List<ItemCatalogoDTO>> listarDisciplinas() {
         return ResponseEntity.ok(catalogoService.listarDisciplinas());
     }
 
     @GetMapping("/cursos")
-    public ResponseEntity<List<Curso>> listarCursos() {
+    public ResponseEntity<List<ItemCatalogoDTO>> listarCursos() {
         return ResponseEntity.ok(catalogoService.listarCursos());
     }
 }
@@ -1,11 +1,26 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
 import io.github.cursodsousa.sbootexpsecurity.api.dto.DocumentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.IniciarUploadDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.MigracaoArmazenamentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UploadSessaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.config.ValidacaoException;
+import io.github.cursodsousa.sbootexpsecurity.domain.armazenamento.ArmazenamentoLocal;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.DocumentoService;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.UploadEmPartesService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -13,9 +28,14 @@ import java.util.List;
 public class DocumentoController {
 
     private final DocumentoService documentoService;
+    private final UploadEmPartesService uploadEmPartesService;
+    private final ObjectProvider<ArmazenamentoLocal> armazenamentoLocal;
 
-    public DocumentoController(DocumentoService documentoService) {
+    public DocumentoController(DocumentoService documentoService, UploadEmPartesService uploadEmPartesService,
+                               ObjectProvider<ArmazenamentoLocal> armazenamentoLocal) {
         this.documentoService = documentoService;
+        this.uploadEmPartesService = uploadEmPartesService;
+        this.armazenamentoLocal = armazenamentoLocal;
     }
 
     @PostMapping("/upload")
@@ -24,6 +44,50 @@ public class DocumentoController {
         return ResponseEntity.ok(documentoDTO);
     }
 
+    // Upload retomável em partes, para arquivos acima do limite do multipart
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessaoDTO> iniciarUpload(@RequestBody IniciarUploadDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadEmPartesService.iniciar(dto));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<UploadSessaoDTO> consultarUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadEmPartesService.consultar(uploadId));
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}/chunks/{indice}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessaoDTO> enviarChunk(
+            @PathVariable String uploadId,
+            @PathVariable int indice,
+            @RequestHeader(value = "X-Checksum-SHA256", required = false) String checksum,
+            HttpServletRequest request) throws IOException {
+        UploadSessaoDTO sessao = uploadEmPartesService.receberChunk(uploadId, indice, checksum, request.getInputStream());
+        return ResponseEntity.ok(sessao);
+    }
+
+    @PostMapping("/uploads/{uploadId}/concluir")
+    public ResponseEntity<DocumentoDTO> concluirUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadEmPartesService.concluir(uploadId));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> cancelarUpload(@PathVariable String uploadId) {
+        uploadEmPartesService.cancelar(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Move os arquivos do layout plano antigo para os diretórios por prefixo, com a aplicação no ar
+    @PostMapping("/armazenamento/migrar")
+    public ResponseEntity<MigracaoArmazenamentoDTO> migrarArmazenamento(
+            @RequestParam(defaultValue = "4") int paralelismo) throws IOException {
+        ArmazenamentoLocal local = armazenamentoLocal.getIfAvailable();
+        if (local == null) {
+            throw new ValidacaoException("Migração disponível apenas com o armazenamento local");
+        }
+        ArmazenamentoLocal.ResultadoMigracao resultado = local.migrarLayoutPlano(paralelismo);
+        return ResponseEntity.ok(new MigracaoArmazenamentoDTO(resultado.movidos(), resultado.falhas()));
+    }
+
     @GetMapping
     public ResponseEntity<List<DocumentoDTO>> listarTodos() {
         return ResponseEntity.ok(documentoService.listarTodos());
@@ -34,6 +98,41 @@ public class DocumentoController {
         return ResponseEntity.ok(documentoService.buscarPorId(id));
     }
 
+    @GetMapping("/{id}/download")
+    public void baixar(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DocumentoService.ArquivoDocumento arquivo = documentoService.abrirArquivo(id);
+        if (DocumentoService.CODIFICACAO_GZIP.equals(arquivo.codificacao())) {
+            DownloadArquivo.enviarComprimido(request, response, arquivo.caminho(), arquivo.tipoArquivo(),
+                    arquivo.nomeArquivo(), arquivo.tamanho(), arquivo.chave(), arquivo.modificadoEm());
+        } else {
+            DownloadArquivo.enviar(request, response, arquivo.caminho(), arquivo.tipoArquivo(), arquivo.nomeArquivo(),
+                    arquivo.chave(), arquivo.modificadoEm());
+        }
+    }
+
+    // 202 enquanto a miniatura é gerada; pronta, é servida com ETag e Last-Modified para cache no cliente;
+    // 422 se a imagem não pôde ser decodificada (o cliente deve parar de consultar)
+    @GetMapping("/{id}/miniatura")
+    public void miniatura(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        DocumentoService.Miniatura miniatura = documentoService.buscarMiniatura(id);
+        if (miniatura.situacao() == DocumentoService.SituacaoMiniatura.FALHOU) {
+            response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("Não foi possível gerar a miniatura: imagem corrompida ou não suportada");
+            return;
+        }
+        if (miniatura.situacao() == DocumentoService.SituacaoMiniatura.GERANDO) {
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(Duration.ofDays(1)).cachePrivate().getHeaderValue());
+        DownloadArquivo.enviar(request, response, miniatura.caminho(), MediaType.IMAGE_PNG_VALUE,
+                "miniatura-" + id + ".png", miniatura.chave() + "-miniatura", miniatura.modificadoEm());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletar(@PathVariable Long id) {
         documentoService.deletar(id);
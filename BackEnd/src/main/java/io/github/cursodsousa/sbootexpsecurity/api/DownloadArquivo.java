@@ -0,0 +1,274 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Envia um arquivo do disco com suporte a Range/If-Range e validação condicional (ETag/Last-Modified). Os dois
+ * validadores vêm do conteúdo no armazenamento (o hash e a data de gravação), e não do arquivo local, que é uma
+ * cópia de cache diferente em cada nó.
+ * Quando o conector do Tomcat oferece sendfile, o kernel copia o arquivo direto para o socket;
+ * caso contrário, usa FileChannel.transferTo, sem passar os bytes por buffers no heap da aplicação.
+ */
+final class DownloadArquivo {
+
+    private static final String SENDFILE_SUPORTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private DownloadArquivo() {
+    }
+
+    // modificadoEm nulo (documentos antigos): sem Last-Modified, só o ETag
+    static void enviar(HttpServletRequest request, HttpServletResponse response, Path arquivo,
+                       String tipoArquivo, String nomeArquivo, String versao, Instant modificadoEm) throws IOException {
+        enviar(request, response, arquivo, tipoArquivo, nomeArquivo, versao, segundos(modificadoEm), "", true);
+    }
+
+    /**
+     * Arquivo guardado em gzip: clientes que aceitam gzip recebem os bytes do disco com Content-Encoding
+     * (com envio sem cópia); os demais recebem o conteúdo descomprimido durante o envio. Nenhuma das duas
+     * aceita Range: um trecho do meio de um stream gzip não pode ser decodificado, por isso os tipos lidos
+     * por intervalo (PDF) não são comprimidos. As duas representações têm ETags diferentes.
+     */
+    static void enviarComprimido(HttpServletRequest request, HttpServletResponse response, Path arquivo,
+                                 String tipoArquivo, String nomeArquivo, long tamanhoOriginal,
+                                 String versao, Instant modificadoEm) throws IOException {
+        long modificado = segundos(modificadoEm);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (aceitaGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            enviar(request, response, arquivo, tipoArquivo, nomeArquivo, versao, modificado, "-gzip", false);
+            return;
+        }
+
+        String etag = etag(versao, "");
+        validadores(response, etag, modificado);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+
+        if (naoModificado(request, etag, modificado)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        cabecalhosConteudo(response, arquivo, tipoArquivo, nomeArquivo);
+        if (tamanhoOriginal >= 0) response.setContentLengthLong(tamanhoOriginal);
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+        try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER)) {
+            entrada.transferTo(response.getOutputStream());
+        }
+    }
+
+    private static void enviar(HttpServletRequest request, HttpServletResponse response, Path arquivo,
+                               String tipoArquivo, String nomeArquivo, String versao, long modificadoEm,
+                               String sufixoEtag, boolean aceitaRange) throws IOException {
+        long tamanho = Files.size(arquivo);
+        String etag = etag(versao, sufixoEtag);
+
+        validadores(response, etag, modificadoEm);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, aceitaRange ? "bytes" : "none");
+
+        if (naoModificado(request, etag, modificadoEm)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        cabecalhosConteudo(response, arquivo, tipoArquivo, nomeArquivo);
+
+        long inicio = 0;
+        long fim = tamanho - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+
+        if (aceitaRange && range != null && rangeAplicavel(request, etag, modificadoEm)) {
+            long[] intervalo = interpretarRange(range, tamanho);
+            if (intervalo == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (intervalo.length == 2) {
+                inicio = intervalo[0];
+                fim = intervalo[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+            }
+        }
+
+        long comprimento = tamanho == 0 ? 0 : fim - inicio + 1;
+        response.setContentLengthLong(comprimento);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || comprimento == 0) {
+            return;
+        }
+        transferir(request, response, arquivo, inicio, comprimento);
+    }
+
+    // Last-Modified tem resolução de segundos; -1 = data desconhecida
+    private static long segundos(Instant modificadoEm) {
+        return modificadoEm == null ? -1 : modificadoEm.toEpochMilli() / 1000 * 1000;
+    }
+
+    private static void validadores(HttpServletResponse response, String etag, long modificadoEm) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (modificadoEm >= 0) response.setDateHeader(HttpHeaders.LAST_MODIFIED, modificadoEm);
+    }
+
+    // Chaves fora do formato de hash (arquivos antigos) são resumidas para caberem num ETag
+    static String etag(String versao, String sufixo) {
+        String base = versao.matches("[0-9A-Za-z._-]+") ? versao
+                : UUID.nameUUIDFromBytes(versao.getBytes(StandardCharsets.UTF_8)).toString();
+        return "\"" + base + sufixo + "\"";
+    }
+
+    private static void cabecalhosConteudo(HttpServletResponse response, Path arquivo, String tipoArquivo,
+                                           String nomeArquivo) {
+        response.setContentType(tipoArquivo != null ? tipoArquivo : "application/octet-stream");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(nomeArquivo != null ? nomeArquivo : arquivo.getFileName().toString(), StandardCharsets.UTF_8)
+                .build().toString());
+    }
+
+    // Accept-Encoding com gzip (ou *) e q diferente de zero
+    private static boolean aceitaGzip(HttpServletRequest request) {
+        String aceitos = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (aceitos == null) return false;
+        for (String valor : aceitos.split(",")) {
+            String[] partes = valor.trim().split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            if (!codificacao.equals("gzip") && !codificacao.equals("*")) continue;
+
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parametro.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void transferir(HttpServletRequest request, HttpServletResponse response, Path arquivo,
+                                   long inicio, long comprimento) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTE))) {
+            request.setAttribute(SENDFILE_ARQUIVO, arquivo.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + comprimento);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+            long posicao = inicio;
+            long restante = comprimento;
+            while (restante > 0) {
+                long enviados = canal.transferTo(posicao, restante, saida);
+                if (enviados <= 0) break;
+                posicao += enviados;
+                restante -= enviados;
+            }
+        }
+    }
+
+    // If-Modified-Since só é considerado quando não há If-None-Match
+    private static boolean naoModificado(HttpServletRequest request, String etag, long modificadoEm) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return contemEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = lerData(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return modificadoEm >= 0 && ifModifiedSince >= 0 && modificadoEm <= ifModifiedSince;
+    }
+
+    // If-Range: o Range só vale se o cliente ainda tem a mesma versão (ETag forte ou a data exata do Last-Modified)
+    static boolean rangeAplicavel(HttpServletRequest request, String etag, long modificadoEm) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        return modificadoEm >= 0 && lerData(request, HttpHeaders.IF_RANGE) == modificadoEm;
+    }
+
+    private static long lerData(HttpServletRequest request, String cabecalho) {
+        try {
+            return request.getDateHeader(cabecalho);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean contemEtag(String cabecalho, String etag) {
+        for (String valor : cabecalho.split(",")) {
+            String candidato = valor.trim();
+            if (candidato.equals("*") || candidato.equals(etag) || candidato.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interpreta um único intervalo "bytes=a-b", "bytes=a-" ou "bytes=-n".
+     * Retorna {inicio, fim}, um array vazio quando o cabeçalho deve ser ignorado (ex.: vários intervalos ou
+     * fim antes do início) ou null quando o intervalo é válido mas não pode ser atendido.
+     */
+    static long[] interpretarRange(String range, long tamanho) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String especificacao = range.substring("bytes=".length()).trim();
+        int hifen = especificacao.indexOf('-');
+        if (hifen < 0) return new long[0];
+
+        try {
+            String antes = especificacao.substring(0, hifen).trim();
+            String depois = especificacao.substring(hifen + 1).trim();
+            long inicio;
+            long fim;
+            if (antes.isEmpty()) {
+                long sufixo = Long.parseLong(depois);
+                if (sufixo <= 0) return null;
+                inicio = Math.max(0, tamanho - sufixo);
+                fim = tamanho - 1;
+            } else {
+                inicio = Long.parseLong(antes);
+                fim = tamanho - 1;
+                if (!depois.isEmpty()) {
+                    long ultimo = Long.parseLong(depois);
+                    // "bytes=5-2" é sintaticamente inválido: ignora o cabeçalho (RFC 9110, 14.1.1)
+                    if (ultimo < inicio) return new long[0];
+                    fim = Math.min(ultimo, fim);
+                }
+            }
+            if (inicio >= tamanho) return null;
+            return new long[]{inicio, fim};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
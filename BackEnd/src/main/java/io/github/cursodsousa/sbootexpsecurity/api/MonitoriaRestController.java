@@ -1,14 +1,38 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.LinkCalendarioDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.MonitoriaDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.MonitoriaResponseDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaMonitoriasDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.RelatorioBolsasDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.security.TokenService;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.AgendaMonitoriaService;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.MonitoriaService;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.RelatorioBolsasService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -17,6 +41,18 @@ public class MonitoriaRestController {
 
     @Autowired
     private MonitoriaService monitoriaService;
+    @Autowired
+    private AgendaMonitoriaService agendaMonitoriaService;
+    @Autowired
+    private RelatorioBolsasService relatorioBolsasService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Value("${app.monitoria.fuso-horario:America/Sao_Paulo}")
+    private String fusoHorario;
 
     @GetMapping
     public ResponseEntity<List<MonitoriaResponseDTO>> listarMonitoria() {
@@ -24,6 +60,101 @@ public class MonitoriaRestController {
         return ResponseEntity.ok(monitorias);
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaMonitoriasDTO> listarPagina(@RequestParam(required = false) Long cursoId,
+                                                            @RequestParam(required = false) Long disciplinaId,
+                                                            @RequestParam(required = false) String semestre,
+                                                            @RequestParam(required = false) StatusMonitoria status,
+                                                            @RequestParam(required = false) Boolean bolsa,
+                                                            @RequestParam(defaultValue = "0") int pagina,
+                                                            @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(monitoriaService.listarPagina(cursoId, disciplinaId, semestre, status, bolsa,
+                pagina, tamanho));
+    }
+
+    // Projeção mensal das bolsas por curso, semestre e mês (padrão: 12 meses a partir do mês atual)
+    @GetMapping("/relatorios/bolsas")
+    public ResponseEntity<RelatorioBolsasDTO> relatorioBolsas(
+            @RequestParam(required = false) Long cursoId,
+            @RequestParam(required = false) String semestre,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate) {
+        YearMonth inicio = de != null ? de : YearMonth.now();
+        YearMonth fim = ate != null ? ate : inicio.plusMonths(11);
+        return ResponseEntity.ok(relatorioBolsasService.gerar(cursoId, semestre, inicio, fim));
+    }
+
+    // Salas já usadas em monitorias que estão livres na data e no horário informados
+    @GetMapping("/salas-livres")
+    public ResponseEntity<List<String>> listarSalasLivres(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime termino) {
+        return ResponseEntity.ok(monitoriaService.listarSalasLivres(data, inicio, termino));
+    }
+
+    // Sessões das monitorias entre as datas (padrão: próximos 30 dias), geradas durante o envio
+    @GetMapping("/ocorrencias")
+    public void listarOcorrencias(@RequestParam List<Long> ids,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LocalDate inicio = de != null ? de : LocalDate.now();
+        LocalDate fim = ate != null ? ate : inicio.plusDays(30);
+        List<AgendaMonitoriaService.Recorrencia> recorrencias = agendaMonitoriaService.buscar(ids);
+        var ocorrencias = agendaMonitoriaService.expandir(recorrencias, inicio, fim);
+
+        if (naoModificado(request, response, agendaMonitoriaService.etag(recorrencias, "json|" + inicio + "|" + fim))) {
+            return;
+        }
+        CalendarioMonitorias.enviarJson(response, objectMapper, ocorrencias);
+    }
+
+    // Feed iCalendar com autenticação Bearer: um evento recorrente por monitoria
+    @GetMapping("/calendario.ics")
+    public void exportarCalendario(@RequestParam List<Long> ids,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<AgendaMonitoriaService.Recorrencia> recorrencias = agendaMonitoriaService.buscar(ids);
+        if (naoModificado(request, response, agendaMonitoriaService.etag(recorrencias, "ics|" + fusoHorario))) {
+            return;
+        }
+        CalendarioMonitorias.enviarIcs(response, recorrencias, ZoneId.of(fusoHorario));
+    }
+
+    // URL assinada do mesmo feed, para aplicativos de agenda (que não enviam o token Bearer)
+    @GetMapping("/calendario/link")
+    public ResponseEntity<LinkCalendarioDTO> gerarLinkCalendario(@RequestParam List<Long> ids,
+                                                                 @AuthenticationPrincipal Usuario usuario) {
+        if (ids.size() > AgendaMonitoriaService.MAXIMO_MONITORIAS) {
+            throw new ValidationException("Informe no máximo " + AgendaMonitoriaService.MAXIMO_MONITORIAS + " monitorias");
+        }
+        String token = tokenService.gerarTokenCalendario(usuario.getLogin(), ids);
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/monitoria/calendario/{token}/monitorias.ics")
+                .buildAndExpand(token)
+                .toUriString();
+        return ResponseEntity.ok(new LinkCalendarioDTO(url));
+    }
+
+    // Rota pública: vale enquanto o token for válido e o usuário que gerou o link existir
+    @GetMapping("/calendario/{token}/monitorias.ics")
+    public void exportarCalendarioAssinado(@PathVariable String token,
+                                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var feed = tokenService.validarTokenCalendario(token)
+                .filter(t -> usuarioRepository.findByLogin(t.login()) != null);
+        if (feed.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        exportarCalendario(feed.get().monitorias(), request, response);
+    }
+
+    // Sempre revalida: com o ETag em cache por monitoria, a resposta 304 não consulta o banco
+    private boolean naoModificado(HttpServletRequest request, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MonitoriaResponseDTO> detalharMonitoria(@PathVariable Long id) {
         MonitoriaResponseDTO monitoria = monitoriaService.buscarPorId(id);
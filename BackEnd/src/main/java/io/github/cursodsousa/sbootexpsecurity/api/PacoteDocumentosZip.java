@@ -0,0 +1,128 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.service.DocumentoService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Monta um ZIP com os arquivos de vários documentos direto na resposta: cada arquivo é localizado só quando chega
+ * a sua vez (no S3, baixado um por vez, com o pacote já em envio), lido em blocos e escrito na entrada
+ * correspondente, sem guardar o pacote em memória ou em disco. Arquivos ausentes no armazenamento ficam de fora.
+ * Formatos já comprimidos podem ir como STORED, o que exige uma leitura prévia para o CRC.
+ */
+final class PacoteDocumentosZip {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final List<String> TIPOS_JA_COMPRIMIDOS = List.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "video/", "audio/",
+            "application/zip", "application/gzip", "application/x-7z-compressed", "application/x-rar",
+            "application/vnd.openxmlformats-officedocument", "application/vnd.oasis.opendocument");
+
+    private PacoteDocumentosZip() {
+    }
+
+    @FunctionalInterface
+    interface Localizador {
+        Path localizar(String chave) throws IOException;
+    }
+
+    private record Arquivo(Path caminho, DocumentoService.ItemPacote item) {
+    }
+
+    static void enviar(HttpServletResponse response, String nomePacote, List<DocumentoService.ItemPacote> itens,
+                       Localizador localizador, boolean recomprimir) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nomePacote, StandardCharsets.UTF_8).build().toString());
+
+        Set<String> nomesUsados = new HashSet<>();
+        try (ZipOutputStream zip = new ZipOutputStream(
+                new BufferedOutputStream(response.getOutputStream(), TAMANHO_BUFFER))) {
+            for (DocumentoService.ItemPacote item : itens) {
+                Arquivo arquivo;
+                try {
+                    arquivo = new Arquivo(localizador.localizar(item.chave()), item);
+                } catch (NoSuchFileException | IllegalArgumentException e) {
+                    continue;
+                }
+
+                ZipEntry entrada = new ZipEntry(nomeUnico(item, nomesUsados));
+                entrada.setLastModifiedTime(Files.getLastModifiedTime(arquivo.caminho()));
+                if (!recomprimir && jaComprimido(item.tipoArquivo())) {
+                    prepararStored(entrada, arquivo);
+                }
+
+                zip.putNextEntry(entrada);
+                try (InputStream conteudo = abrir(arquivo)) {
+                    conteudo.transferTo(zip);
+                }
+                zip.closeEntry();
+                // Cada arquivo concluído já sai para o cliente
+                zip.flush();
+            }
+        }
+    }
+
+    // STORED exige tamanho e CRC antes dos dados
+    private static void prepararStored(ZipEntry entrada, Arquivo arquivo) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[TAMANHO_BUFFER];
+        long tamanho = 0;
+        try (InputStream conteudo = abrir(arquivo)) {
+            int lidos;
+            while ((lidos = conteudo.read(buffer)) > 0) {
+                crc.update(buffer, 0, lidos);
+                tamanho += lidos;
+            }
+        }
+        entrada.setMethod(ZipEntry.STORED);
+        entrada.setSize(tamanho);
+        entrada.setCompressedSize(tamanho);
+        entrada.setCrc(crc.getValue());
+    }
+
+    private static InputStream abrir(Arquivo arquivo) throws IOException {
+        InputStream entrada = Files.newInputStream(arquivo.caminho());
+        return DocumentoService.CODIFICACAO_GZIP.equals(arquivo.item().codificacao())
+                ? new GZIPInputStream(entrada, TAMANHO_BUFFER)
+                : entrada;
+    }
+
+    private static boolean jaComprimido(String tipoArquivo) {
+        if (tipoArquivo == null) return false;
+        String tipo = tipoArquivo.toLowerCase(Locale.ROOT);
+        return TIPOS_JA_COMPRIMIDOS.stream().anyMatch(tipo::startsWith);
+    }
+
+    // Nomes repetidos ganham sufixo "(2)", "(3)"...; separadores de diretório são removidos
+    private static String nomeUnico(DocumentoService.ItemPacote item, Set<String> usados) {
+        String nome = item.nomeArquivo() != null ? item.nomeArquivo() : item.chave();
+        nome = nome.replace('\\', '_').replace('/', '_');
+
+        String candidato = nome;
+        int ponto = nome.lastIndexOf('.');
+        String base = ponto > 0 ? nome.substring(0, ponto) : nome;
+        String extensao = ponto > 0 ? nome.substring(ponto) : "";
+        for (int i = 2; !usados.add(candidato.toLowerCase(Locale.ROOT)); i++) {
+            candidato = base + " (" + i + ")" + extensao;
+        }
+        return candidato;
+    }
+}
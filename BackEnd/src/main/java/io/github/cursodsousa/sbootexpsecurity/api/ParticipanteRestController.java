@@ -1,7 +1,6 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
-import io.github.cursodsousa.sbootexpsecurity.domain.entity.Evento;
-import io.github.cursodsousa.sbootexpsecurity.domain.entity.ParticipanteEvento;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ParticipanteDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.ParticipanteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,17 +16,15 @@ public class ParticipanteRestController {
     private ParticipanteService participanteService;
 
     @PostMapping
-    public ResponseEntity<Evento> adicionarParticipantes(
+    public ResponseEntity<List<ParticipanteDTO>> adicionarParticipantes(
             @PathVariable Long eventoId,
-            @RequestBody List<ParticipanteEvento> participanteEventos
+            @RequestBody List<ParticipanteDTO> participantes
     ) {
-        Evento evento = participanteService.adicionarParticipantes(eventoId, participanteEventos);
-        return ResponseEntity.ok(evento);
+        return ResponseEntity.ok(participanteService.adicionarParticipantes(eventoId, participantes));
     }
 
     @GetMapping
-    public ResponseEntity<List<ParticipanteEvento>> listarParticipantes(@PathVariable Long eventoId) {
-        List<ParticipanteEvento> participanteEventos = participanteService.listarPorEvento(eventoId);
-        return ResponseEntity.ok(participanteEventos);
+    public ResponseEntity<List<ParticipanteDTO>> listarParticipantes(@PathVariable Long eventoId) {
+        return ResponseEntity.ok(participanteService.listarPorEvento(eventoId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.FilaAprovacaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.TipoPendencia;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.PendenciaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Fila de aprovação do administrador: eventos, projetos e monitorias pendentes numa só listagem paginada
+@RestController
+@RequestMapping("/api/pendencias")
+public class PendenciaController {
+
+    private final PendenciaService pendenciaService;
+
+    public PendenciaController(PendenciaService pendenciaService) {
+        this.pendenciaService = pendenciaService;
+    }
+
+    @GetMapping
+    public ResponseEntity<FilaAprovacaoDTO> listar(@RequestParam(required = false) List<TipoPendencia> tipo,
+                                                   @RequestParam(defaultValue = "0") int pagina,
+                                                   @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(pendenciaService.listar(tipo, pagina, tamanho));
+    }
+}
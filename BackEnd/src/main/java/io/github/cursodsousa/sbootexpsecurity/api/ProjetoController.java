@@ -1,13 +1,25 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.BuscaProjetoDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.CriarProjetoRequest;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.DocumentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ImportacaoProjetosDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaDocumentosDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.ProjetoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusProjeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.DocumentoService;
 import io.github.cursodsousa.sbootexpsecurity.domain.service.ProjetoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,9 +27,11 @@ import java.util.List;
 public class ProjetoController {
 
     private final ProjetoService projetoService;
+    private final DocumentoService documentoService;
 
-    public ProjetoController(ProjetoService projetoService) {
+    public ProjetoController(ProjetoService projetoService, DocumentoService documentoService) {
         this.projetoService = projetoService;
+        this.documentoService = documentoService;
     }
 
     @PostMapping
@@ -26,6 +40,13 @@ public class ProjetoController {
         return ResponseEntity.ok(projetoDTO);
     }
 
+    // Corpo lido direto do stream da requisição (array JSON), sem materializar a lista inteira
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportacaoProjetosDTO> importarProjetos(HttpServletRequest request) throws IOException {
+        ImportacaoProjetosDTO resultado = projetoService.importarProjetos(request.getInputStream());
+        return ResponseEntity.ok(resultado);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<ProjetoDTO> atualizarProjeto(
             @PathVariable Long id,
@@ -40,6 +61,19 @@ public class ProjetoController {
         return ResponseEntity.ok(projetos);
     }
 
+    @GetMapping("/busca")
+    public ResponseEntity<BuscaProjetoDTO> buscarProjetos(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String areaConhecimento,
+            @RequestParam(required = false) String tipoProjeto,
+            @RequestParam(required = false) StatusProjeto status,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        BuscaProjetoDTO resultado = projetoService.buscarPorPalavrasChave(
+                q, areaConhecimento, tipoProjeto, status, pagina, tamanho);
+        return ResponseEntity.ok(resultado);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletarProjeto(@PathVariable Long id) {
         projetoService.deletarProjeto(id);
@@ -52,6 +86,30 @@ public class ProjetoController {
         return ResponseEntity.ok(projeto);
     }
 
+    // Vários anexos numa única requisição (campo multipart "arquivos")
+    @PostMapping(value = "/{id}/documentos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<DocumentoDTO>> anexarDocumentos(@PathVariable Long id,
+                                                               @RequestParam("arquivos") List<MultipartFile> arquivos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(documentoService.anexarDocumentos(id, arquivos));
+    }
+
+    @GetMapping("/{id}/documentos")
+    public ResponseEntity<PaginaDocumentosDTO> listarDocumentos(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "0") int pagina,
+                                                                @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(documentoService.listarDocumentosDoProjeto(id, pagina, tamanho));
+    }
+
+    // Todos os anexos do projeto num ZIP gerado durante o envio; recomprimir=true aplica deflate até em JPEG/ZIP etc.
+    @GetMapping("/{id}/documentos/zip")
+    public void baixarDocumentos(@PathVariable Long id,
+                                 @RequestParam(defaultValue = "false") boolean recomprimir,
+                                 HttpServletResponse response) throws IOException {
+        List<DocumentoService.ItemPacote> itens = documentoService.listarArquivosDoProjeto(id);
+        PacoteDocumentosZip.enviar(response, "projeto-" + id + "-documentos.zip", itens,
+                documentoService::localizarConteudo, recomprimir);
+    }
+
     @PatchMapping("/{id}/aprovar")
     public ResponseEntity<ProjetoDTO> aprovarProjeto(@PathVariable Long id) {
         ProjetoDTO projetoDTO = projetoService.aprovarProjeto(id);
@@ -0,0 +1,41 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.SugestaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.IndiceNomesService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Autocompletar para os seletores do front-end: nomes que começam com q (sem acento e sem caixa)
+@RestController
+@RequestMapping("/api/sugestoes")
+public class SugestaoController {
+
+    private final IndiceNomesService indiceNomesService;
+
+    public SugestaoController(IndiceNomesService indiceNomesService) {
+        this.indiceNomesService = indiceNomesService;
+    }
+
+    @GetMapping("/cursos")
+    public ResponseEntity<List<SugestaoDTO>> sugerirCursos(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(indiceNomesService.sugerirCursos(q, limite));
+    }
+
+    @GetMapping("/disciplinas")
+    public ResponseEntity<List<SugestaoDTO>> sugerirDisciplinas(@RequestParam String q,
+                                                                @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(indiceNomesService.sugerirDisciplinas(q, limite));
+    }
+
+    @GetMapping("/usuarios")
+    public ResponseEntity<List<SugestaoDTO>> sugerirUsuarios(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(indiceNomesService.sugerirUsuarios(q, limite));
+    }
+}
@@ -1,7 +1,13 @@
 package io.github.cursodsousa.sbootexpsecurity.api;
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.AtualizarUsuarioDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaUsuariosDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UsuarioResumoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.DiretorioUsuariosService;
+import io.github.cursodsousa.sbootexpsecurity.domain.service.IndiceNomesService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,22 +23,36 @@ public class UsuarioController {
 
     @Autowired
     private UsuarioRepository repository;
+    @Autowired
+    private IndiceNomesService indiceNomesService;
+    @Autowired
+    private DiretorioUsuariosService diretorioUsuariosService;
 
     @GetMapping
-    public List<Usuario> listarTodos() {
-        return repository.findAll();
+    public List<UsuarioResumoDTO> listarTodos() {
+        return repository.listarResumos();
+    }
+
+    // Busca por início de nome, login ou e-mail; a próxima página vem com depoisDe = proximo
+    @GetMapping("/diretorio")
+    public ResponseEntity<PaginaUsuariosDTO> listarDiretorio(@RequestParam(required = false) String q,
+                                                             @RequestParam(required = false) UserRole role,
+                                                             @RequestParam(required = false) String depoisDe,
+                                                             @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(diretorioUsuariosService.listar(q, role, depoisDe, tamanho));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Usuario> buscarPorId(@PathVariable String id) {
+    public ResponseEntity<UsuarioResumoDTO> buscarPorId(@PathVariable String id) {
         return repository.findById(id)
+                .map(UsuarioResumoDTO::fromUsuario)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}")
     @Transactional
-    public ResponseEntity<Usuario> atualizarParcial(@PathVariable String id, @RequestBody Usuario updates) {
+    public ResponseEntity<UsuarioResumoDTO> atualizarParcial(@PathVariable String id, @RequestBody AtualizarUsuarioDTO updates) {
         Optional<Usuario> optionalUsuario = repository.findById(id);
 
         if (optionalUsuario.isEmpty()) {
@@ -41,13 +61,14 @@ public class UsuarioController {
 
         Usuario usuario = optionalUsuario.get();
 
-        if (updates.getNome() != null) usuario.setNome(updates.getNome());
-        if (updates.getEmail() != null) usuario.setEmail(updates.getEmail());
-        if (updates.getLogin() != null) usuario.setLogin(updates.getLogin());
-        if (updates.getSenha() != null) usuario.setSenha(new BCryptPasswordEncoder().encode(updates.getSenha()));
-        if (updates.getRole() != null) usuario.setRole(updates.getRole());
+        if (updates.nome() != null) usuario.setNome(updates.nome());
+        if (updates.email() != null) usuario.setEmail(updates.email());
+        if (updates.login() != null) usuario.setLogin(updates.login());
+        if (updates.senha() != null) usuario.setSenha(new BCryptPasswordEncoder().encode(updates.senha()));
+        if (updates.role() != null) usuario.setRole(updates.role());
+        indiceNomesService.atualizarUsuarioAposCommit(usuario);
 
-        return ResponseEntity.ok(usuario);
+        return ResponseEntity.ok(UsuarioResumoDTO.fromUsuario(usuario));
     }
 
     @DeleteMapping("/{id}")
@@ -56,6 +77,7 @@ public class UsuarioController {
             return ResponseEntity.notFound().build();
         }
         repository.deleteById(id);
+        indiceNomesService.removerUsuarioAposCommit(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
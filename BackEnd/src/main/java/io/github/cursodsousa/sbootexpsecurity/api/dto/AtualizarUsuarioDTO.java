@@ -0,0 +1,8 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
+
+// Campos nulos não são alterados
+public record AtualizarUsuarioDTO(String login, String senha, String nome, String email, UserRole role) {
+
+}
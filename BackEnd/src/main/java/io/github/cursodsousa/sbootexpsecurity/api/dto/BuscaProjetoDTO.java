@@ -0,0 +1,19 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BuscaProjetoDTO {
+    private int total;
+    private int pagina;
+    private int tamanho;
+    private List<ProjetoDTO> projetos;
+    private Map<String, Map<String, Integer>> facetas;
+}
@@ -0,0 +1,12 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+    private int indice;
+    private String mensagem;
+}
@@ -0,0 +1,20 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.TipoPendencia;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilaAprovacaoDTO {
+    private long total;
+    private int pagina;
+    private int tamanho;
+    private Map<TipoPendencia, Long> totalPorTipo;
+    private List<PendenciaDTO> pendencias;
+}
@@ -0,0 +1,16 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacaoProjetosDTO {
+    private int total;
+    private int importados;
+    private List<ErroImportacaoDTO> erros;
+}
@@ -0,0 +1,13 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IniciarUploadDTO {
+    private String nomeArquivo;
+    private String tipoArquivo;
+    private Long tamanho;
+}
@@ -0,0 +1,13 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemCatalogoDTO {
+    private Long id;
+    private String nome;
+}
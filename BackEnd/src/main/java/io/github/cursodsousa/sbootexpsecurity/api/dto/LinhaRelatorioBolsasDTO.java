@@ -0,0 +1,19 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LinhaRelatorioBolsasDTO {
+    private Long cursoId;
+    private String cursoNome;
+    private String semestre;
+    private String mes;
+    private int monitorias;
+    private BigDecimal valor;
+}
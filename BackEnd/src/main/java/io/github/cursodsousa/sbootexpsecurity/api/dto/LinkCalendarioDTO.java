@@ -0,0 +1,5 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+// URL assinada do feed iCalendar, para assinatura em aplicativos de agenda
+public record LinkCalendarioDTO(String url) {
+}
@@ -0,0 +1,13 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigracaoArmazenamentoDTO {
+    private int movidos;
+    private int falhas;
+}
@@ -0,0 +1,17 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaDocumentosDTO {
+    private long total;
+    private int pagina;
+    private int tamanho;
+    private List<DocumentoDTO> documentos;
+}
@@ -0,0 +1,16 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaUsuariosDTO {
+    private List<UsuarioResumoDTO> usuarios;
+    // Login do último usuário da página, a ser enviado em depoisDe; nulo na última página
+    private String proximo;
+}
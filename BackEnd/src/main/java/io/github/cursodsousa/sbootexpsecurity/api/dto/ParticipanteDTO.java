@@ -1,9 +1,13 @@
 package io.github.cursodsousa.sbootexpsecurity.api.dto;
 
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.ParticipanteEvento;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ParticipanteDTO {
     private Long id;
     private String nome;
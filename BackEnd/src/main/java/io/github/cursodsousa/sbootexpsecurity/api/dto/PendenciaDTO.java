@@ -0,0 +1,18 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.TipoPendencia;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendenciaDTO {
+    private TipoPendencia tipo;
+    private Long id;
+    private String titulo;
+    private LocalDateTime enviadoEm;
+}
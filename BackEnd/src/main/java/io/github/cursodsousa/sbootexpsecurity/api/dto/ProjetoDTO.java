@@ -11,6 +11,7 @@ import java.util.List;
 @Builder
 public class ProjetoDTO {
     private Long id;
+    private Long versao;
     private String titulo;
     private String descricao;
     private String objetivos;
@@ -0,0 +1,19 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelatorioBolsasDTO {
+    private BigDecimal total;
+    // Mês (aaaa-mm) → valor comprometido no mês
+    private Map<String, BigDecimal> totalPorMes;
+    private List<LinhaRelatorioBolsasDTO> linhas;
+}
@@ -0,0 +1,14 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SugestaoDTO {
+    // Long para cursos e disciplinas, String (UUID) para usuários
+    private Object id;
+    private String nome;
+}
@@ -0,0 +1,20 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessaoDTO {
+    private String id;
+    private String nomeArquivo;
+    private long tamanhoTotal;
+    private int tamanhoChunk;
+    private int totalChunks;
+    private List<Integer> chunksPendentes;
+    private String status;
+}
@@ -0,0 +1,23 @@
+package io.github.cursodsousa.sbootexpsecurity.api.dto;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsuarioResumoDTO {
+    private String id;
+    private String nome;
+    private String login;
+    private String email;
+    private UserRole role;
+
+    public static UsuarioResumoDTO fromUsuario(Usuario usuario) {
+        return new UsuarioResumoDTO(usuario.getId(), usuario.getNome(), usuario.getLogin(), usuario.getEmail(),
+                usuario.getRole());
+    }
+}
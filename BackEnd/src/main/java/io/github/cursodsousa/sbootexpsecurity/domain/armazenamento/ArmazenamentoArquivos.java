@@ -0,0 +1,41 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Onde os bytes dos documentos ficam guardados. A chave é o valor de {@code Documento.caminhoArquivo}
+ * (o SHA-256 do conteúdo ou, em documentos antigos, o nome gerado no upload).
+ */
+public interface ArmazenamentoArquivos {
+
+    record InfoArquivo(long tamanho, Instant modificadoEm) {
+    }
+
+    // Diretório local para arquivos em montagem; arquivos ali podem ser movidos com gravar sem cópia
+    Path diretorioTemporario();
+
+    // Move o arquivo de origem para o armazenamento sob a chave, substituindo um existente
+    void gravar(String chave, Path origem) throws IOException;
+
+    boolean existe(String chave);
+
+    Optional<InfoArquivo> consultar(String chave);
+
+    InputStream abrir(String chave) throws IOException;
+
+    // Caminho em disco local para envio sem cópia (sendfile/transferTo)
+    Path caminhoLocal(String chave) throws IOException;
+
+    boolean remover(String chave) throws IOException;
+
+    /**
+     * Até {@code limite} chaves posteriores a {@code aPartirDe} na ordem de armazenamento
+     * (vazio = do início). Uma lista menor que o limite indica que o fim foi alcançado.
+     */
+    List<String> listar(String aPartirDe, int limite) throws IOException;
+}
@@ -0,0 +1,261 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Armazenamento em disco local com dois níveis de diretórios por prefixo hexadecimal
+ * ({@code ab/cd/<chave>}), o que limita cada diretório a uma fração dos arquivos: localizar uma chave
+ * custa o mesmo com mil ou um milhão de arquivos. Arquivos ainda no layout plano antigo
+ * ({@code uploads/<chave>}) continuam acessíveis e listados até serem movidos por {@link #migrarLayoutPlano(int)}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.armazenamento.tipo", havingValue = "local", matchIfMissing = true)
+public class ArmazenamentoLocal implements ArmazenamentoArquivos {
+
+    private static final Logger log = LoggerFactory.getLogger(ArmazenamentoLocal.class);
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern PREFIXO = Pattern.compile("[0-9a-f]{2}");
+
+    public record ResultadoMigracao(int movidos, int falhas) {
+    }
+
+    private final Path raiz;
+    private final Path temporario;
+
+    public ArmazenamentoLocal(@Value("${app.upload-dir:uploads}") String diretorio) {
+        this.raiz = Paths.get(diretorio).toAbsolutePath().normalize();
+        this.temporario = raiz.resolve(".parciais");
+        try {
+            Files.createDirectories(temporario);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível criar o diretório de uploads", e);
+        }
+    }
+
+    @Override
+    public Path diretorioTemporario() {
+        return temporario;
+    }
+
+    @Override
+    public void gravar(String chave, Path origem) throws IOException {
+        Path destino = caminhoDistribuido(chave);
+        Files.createDirectories(destino.getParent());
+        Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public boolean existe(String chave) {
+        return localizar(chave) != null;
+    }
+
+    @Override
+    public Optional<InfoArquivo> consultar(String chave) {
+        Path arquivo = localizar(chave);
+        if (arquivo == null) return Optional.empty();
+        try {
+            BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+            return Optional.of(new InfoArquivo(atributos.size(), atributos.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream abrir(String chave) throws IOException {
+        return Files.newInputStream(caminhoLocal(chave));
+    }
+
+    @Override
+    public Path caminhoLocal(String chave) throws IOException {
+        Path arquivo = localizar(chave);
+        if (arquivo == null) throw new NoSuchFileException(chave);
+        return arquivo;
+    }
+
+    @Override
+    public boolean remover(String chave) throws IOException {
+        boolean removido = Files.deleteIfExists(caminhoDistribuido(chave));
+        return Files.deleteIfExists(caminhoPlano(chave)) || removido;
+    }
+
+    /**
+     * Ordem de armazenamento: diretório de prefixo e, dentro dele, o nome. Arquivos ainda no layout plano entram
+     * na posição do diretório para onde a migração os levaria, para que a limpeza de órfãos também os alcance.
+     */
+    @Override
+    public List<String> listar(String aPartirDe, int limite) throws IOException {
+        String cursor = aPartirDe == null ? "" : aPartirDe;
+        // Chaveado pela ordem: um arquivo encontrado nos dois layouts durante a migração aparece uma vez
+        TreeMap<String, String> chaves = listarPlanos(cursor, limite);
+        for (String chave : listarDistribuidos(cursor, limite)) {
+            chaves.put(ordem(chave), chave);
+        }
+        return chaves.values().stream().limit(limite).toList();
+    }
+
+    // Percorre os diretórios de prefixo em ordem, a partir do prefixo da chave do cursor
+    private List<String> listarDistribuidos(String cursor, int limite) throws IOException {
+        List<String> chaves = new ArrayList<>();
+        String inicio = cursor.isEmpty() ? "" : prefixo(cursor).substring(0, 4);
+        String inicio1 = inicio.isEmpty() ? "" : inicio.substring(0, 2);
+
+        for (String nivel1 : subdiretorios(raiz, inicio1)) {
+            Path dir1 = raiz.resolve(nivel1);
+            for (String nivel2 : subdiretorios(dir1, nivel1.equals(inicio1) ? inicio.substring(2) : "")) {
+                String depoisDe = (nivel1 + nivel2).equals(inicio) ? cursor : null;
+                chaves.addAll(nomesOrdenados(dir1.resolve(nivel2), depoisDe, limite - chaves.size()));
+                if (chaves.size() >= limite) return chaves;
+            }
+        }
+        return chaves;
+    }
+
+    // Arquivos na raiz; .parciais, .cache e .miniaturas são diretórios e ficam de fora
+    private TreeMap<String, String> listarPlanos(String cursor, int limite) throws IOException {
+        TreeMap<String, String> chaves = new TreeMap<>();
+        String depoisDe = cursor.isEmpty() ? null : ordem(cursor);
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(raiz, Files::isRegularFile)) {
+            for (Path arquivo : arquivos) {
+                String chave = arquivo.getFileName().toString();
+                if (chave.startsWith(".")) continue;
+                String ordem = ordem(chave);
+                if (depoisDe != null && ordem.compareTo(depoisDe) <= 0) continue;
+                chaves.put(ordem, chave);
+                if (chaves.size() > limite) chaves.pollLastEntry();
+            }
+        }
+        return chaves;
+    }
+
+    /**
+     * Move os arquivos do layout plano para os diretórios de prefixo, em paralelo e sem parar a aplicação:
+     * cada movimento é um rename atômico e {@link #localizar(String)} procura nos dois lugares.
+     */
+    public ResultadoMigracao migrarLayoutPlano(int paralelismo) throws IOException {
+        AtomicInteger movidos = new AtomicInteger();
+        AtomicInteger falhas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, paralelismo));
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(raiz, Files::isRegularFile)) {
+            for (Path arquivo : arquivos) {
+                executor.execute(() -> {
+                    String chave = arquivo.getFileName().toString();
+                    try {
+                        Path destino = caminhoDistribuido(chave);
+                        Files.createDirectories(destino.getParent());
+                        Files.move(arquivo, destino, StandardCopyOption.ATOMIC_MOVE);
+                        movidos.incrementAndGet();
+                    } catch (FileAlreadyExistsException | NoSuchFileException e) {
+                        // Já migrado ou removido enquanto a migração rodava
+                    } catch (IOException e) {
+                        falhas.incrementAndGet();
+                        log.warn("Falha ao migrar o arquivo {}", chave, e);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ResultadoMigracao(movidos.get(), falhas.get());
+    }
+
+    // O layout novo é consultado antes e depois do plano, cobrindo um arquivo movido pela migração no meio da busca
+    private Path localizar(String chave) {
+        Path distribuido = caminhoDistribuido(chave);
+        if (Files.isRegularFile(distribuido)) return distribuido;
+        Path plano = caminhoPlano(chave);
+        if (Files.isRegularFile(plano)) return plano;
+        return Files.isRegularFile(distribuido) ? distribuido : null;
+    }
+
+    private Path caminhoDistribuido(String chave) {
+        String prefixo = prefixo(chave);
+        return validar(raiz.resolve(prefixo.substring(0, 2)).resolve(prefixo.substring(2, 4)).resolve(chave));
+    }
+
+    private Path caminhoPlano(String chave) {
+        return validar(raiz.resolve(chave));
+    }
+
+    private Path validar(Path caminho) {
+        Path normalizado = caminho.normalize();
+        if (!normalizado.startsWith(raiz) || normalizado.equals(raiz)) {
+            throw new IllegalArgumentException("Chave de arquivo inválida");
+        }
+        return normalizado;
+    }
+
+    // Chaves que já são SHA-256 usam o próprio prefixo; as demais (nomes antigos) são espalhadas pelo hash do nome
+    private static String prefixo(String chave) {
+        if (HASH.matcher(chave).matches()) return chave;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String ordem(String chave) {
+        return prefixo(chave).substring(0, 4) + "/" + chave;
+    }
+
+    private static TreeSet<String> subdiretorios(Path diretorio, String minimo) throws IOException {
+        TreeSet<String> nomes = new TreeSet<>();
+        if (!Files.isDirectory(diretorio)) return nomes;
+        try (DirectoryStream<Path> filhos = Files.newDirectoryStream(diretorio, Files::isDirectory)) {
+            for (Path filho : filhos) {
+                String nome = filho.getFileName().toString();
+                if (PREFIXO.matcher(nome).matches() && nome.compareTo(minimo) >= 0) nomes.add(nome);
+            }
+        }
+        return nomes;
+    }
+
+    private static TreeSet<String> nomesOrdenados(Path diretorio, String depoisDe, int limite) throws IOException {
+        TreeSet<String> nomes = new TreeSet<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, Files::isRegularFile)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (depoisDe != null && nome.compareTo(depoisDe) <= 0) continue;
+                nomes.add(nome);
+                if (nomes.size() > limite) nomes.pollLast();
+            }
+        }
+        return nomes;
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Armazenamento em serviço compatível com S3 (AWS, MinIO...), para vários nós da API sem disco compartilhado.
+ * Leituras passam por um {@link CacheLocalArquivos}: arquivos quentes ficam em disco local e continuam
+ * sendo enviados sem cópia; arquivos recém-enviados já entram no cache.
+ */
+@Component
+@ConditionalOnProperty(name = "app.armazenamento.tipo", havingValue = "s3")
+public class ArmazenamentoS3 implements ArmazenamentoArquivos {
+
+    private static final Logger log = LoggerFactory.getLogger(ArmazenamentoS3.class);
+    private static final Pattern CHAVE_XML = Pattern.compile("<Key>([^<]*)</Key>");
+    private static final Pattern TRUNCADO_XML = Pattern.compile("<IsTruncated>true</IsTruncated>");
+    private static final int MAXIMO_POR_LISTAGEM = 1000;
+    private static final Duration TEMPO_LIMITE = Duration.ofMinutes(5);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String endpoint;
+    private final String bucket;
+    private final String prefixo;
+    private final AssinaturaS3 assinatura;
+    private final CacheLocalArquivos cache;
+    private final Path temporario;
+
+    public ArmazenamentoS3(@Value("${app.armazenamento.s3.endpoint}") String endpoint,
+                           @Value("${app.armazenamento.s3.regiao:us-east-1}") String regiao,
+                           @Value("${app.armazenamento.s3.bucket}") String bucket,
+                           @Value("${app.armazenamento.s3.chave-acesso}") String chaveAcesso,
+                           @Value("${app.armazenamento.s3.chave-secreta}") String chaveSecreta,
+                           @Value("${app.armazenamento.s3.prefixo:documentos/}") String prefixo,
+                           @Value("${app.upload-dir:uploads}") String diretorioLocal,
+                           @Value("${app.armazenamento.cache.tamanho-maximo-mb:1024}") long tamanhoCacheMb) {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.prefixo = prefixo;
+        this.assinatura = new AssinaturaS3(regiao, chaveAcesso, chaveSecreta);
+
+        Path raiz = Paths.get(diretorioLocal).toAbsolutePath().normalize();
+        this.temporario = raiz.resolve(".parciais");
+        this.cache = new CacheLocalArquivos(raiz.resolve(".cache"), tamanhoCacheMb * 1024 * 1024);
+        try {
+            Files.createDirectories(temporario);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível criar o diretório de uploads", e);
+        }
+    }
+
+    // Cria o bucket se ainda não existir (útil com MinIO local); falhas aqui não impedem a inicialização
+    @PostConstruct
+    public void prepararBucket() {
+        try {
+            HttpResponse<Void> resposta = executar("HEAD", "/" + bucket, Map.of(), HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() == 404) {
+                verificar(executar("PUT", "/" + bucket, Map.of(), HttpResponse.BodyHandlers.ofString()), "criar bucket");
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível verificar o bucket {}", bucket, e);
+        }
+    }
+
+    @Override
+    public Path diretorioTemporario() {
+        return temporario;
+    }
+
+    @Override
+    public void gravar(String chave, Path origem) throws IOException {
+        HttpRequest.BodyPublisher corpo = HttpRequest.BodyPublishers.ofFile(origem);
+        verificar(executar("PUT", caminho(chave), Map.of(), corpo, HttpResponse.BodyHandlers.ofString()), "gravar " + chave);
+        cache.adicionar(chave, origem);
+    }
+
+    @Override
+    public boolean existe(String chave) {
+        return consultar(chave).isPresent();
+    }
+
+    @Override
+    public Optional<InfoArquivo> consultar(String chave) {
+        try {
+            HttpResponse<Void> resposta = executar("HEAD", caminho(chave), Map.of(), HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() != 200) return Optional.empty();
+
+            long tamanho = resposta.headers().firstValueAsLong("Content-Length").orElse(0);
+            Instant modificadoEm = resposta.headers().firstValue("Last-Modified")
+                    .map(valor -> ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                    .orElse(Instant.EPOCH);
+            return Optional.of(new InfoArquivo(tamanho, modificadoEm));
+        } catch (IOException e) {
+            log.warn("Falha ao consultar {} no armazenamento S3", chave, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream abrir(String chave) throws IOException {
+        return Files.newInputStream(caminhoLocal(chave));
+    }
+
+    @Override
+    public Path caminhoLocal(String chave) throws IOException {
+        return cache.obter(chave, destino -> baixar(chave, destino));
+    }
+
+    @Override
+    public boolean remover(String chave) throws IOException {
+        cache.remover(chave);
+        HttpResponse<String> resposta = executar("DELETE", caminho(chave), Map.of(), HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() == 404) return false;
+        verificar(resposta, "remover " + chave);
+        return true;
+    }
+
+    // ListObjectsV2 em ordem lexicográfica, continuando a partir da última chave (start-after)
+    @Override
+    public List<String> listar(String aPartirDe, int limite) throws IOException {
+        List<String> chaves = new ArrayList<>();
+        String depoisDe = aPartirDe == null || aPartirDe.isEmpty() ? null : prefixo + aPartirDe;
+
+        while (chaves.size() < limite) {
+            Map<String, String> parametros = new LinkedHashMap<>();
+            parametros.put("list-type", "2");
+            parametros.put("prefix", prefixo);
+            parametros.put("max-keys", String.valueOf(Math.min(MAXIMO_POR_LISTAGEM, limite - chaves.size())));
+            if (depoisDe != null) parametros.put("start-after", depoisDe);
+
+            HttpResponse<String> resposta = executar("GET", "/" + bucket, parametros, HttpResponse.BodyHandlers.ofString());
+            verificar(resposta, "listar");
+
+            Listagem listagem = lerListagem(resposta.body());
+            for (String chave : listagem.chaves()) {
+                depoisDe = chave;
+                chaves.add(chave.substring(prefixo.length()));
+            }
+            if (!listagem.truncada() || listagem.chaves().isEmpty()) break;
+        }
+        return chaves;
+    }
+
+    // Extrai as chaves (completas, com o prefixo) e o indicador de continuação da resposta do ListObjectsV2
+    static Listagem lerListagem(String xml) {
+        List<String> chaves = new ArrayList<>();
+        Matcher chave = CHAVE_XML.matcher(xml);
+        while (chave.find()) {
+            chaves.add(desescaparXml(chave.group(1)));
+        }
+        return new Listagem(chaves, TRUNCADO_XML.matcher(xml).find());
+    }
+
+    record Listagem(List<String> chaves, boolean truncada) {
+    }
+
+    private void baixar(String chave, Path destino) throws IOException {
+        HttpResponse<Path> resposta = executar("GET", caminho(chave), Map.of(),
+                HttpResponse.BodyHandlers.ofFile(destino));
+        if (resposta.statusCode() == 404) {
+            throw new NoSuchFileException(chave);
+        }
+        if (resposta.statusCode() != 200) {
+            throw new IOException("Falha ao baixar " + chave + " do armazenamento S3: HTTP " + resposta.statusCode());
+        }
+    }
+
+    private <T> HttpResponse<T> executar(String metodo, String caminho, Map<String, String> parametros,
+                                         HttpResponse.BodyHandler<T> tratador) throws IOException {
+        return executar(metodo, caminho, parametros, HttpRequest.BodyPublishers.noBody(), tratador);
+    }
+
+    private <T> HttpResponse<T> executar(String metodo, String caminho, Map<String, String> parametros,
+                                         HttpRequest.BodyPublisher corpo,
+                                         HttpResponse.BodyHandler<T> tratador) throws IOException {
+        String consulta = AssinaturaS3.consultaCanonica(parametros);
+        URI uri = URI.create(endpoint + caminho + (consulta.isEmpty() ? "" : "?" + consulta));
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(uri).timeout(TEMPO_LIMITE).method(metodo, corpo);
+        assinatura.assinar(requisicao, metodo, uri, caminho, consulta);
+        try {
+            return http.send(requisicao.build(), tratador);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Requisição ao armazenamento S3 interrompida");
+        }
+    }
+
+    // Estilo de caminho: /bucket/prefixo/chave
+    private String caminho(String chave) {
+        if (chave.isEmpty() || chave.contains("/") || chave.contains("\\") || chave.startsWith(".")) {
+            throw new IllegalArgumentException("Chave de arquivo inválida");
+        }
+        return "/" + bucket + "/" + AssinaturaS3.codificar(prefixo + chave, false);
+    }
+
+    private static void verificar(HttpResponse<?> resposta, String operacao) throws IOException {
+        int status = resposta.statusCode();
+        if (status < 200 || status >= 300) {
+            throw new IOException("Falha ao " + operacao + " no armazenamento S3: HTTP " + status);
+        }
+    }
+
+    private static String desescaparXml(String texto) {
+        return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
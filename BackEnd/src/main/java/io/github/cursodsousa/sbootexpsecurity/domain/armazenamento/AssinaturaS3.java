@@ -0,0 +1,126 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Assinatura AWS Signature V4 para requisições S3 em estilo de caminho ({@code /bucket/chave}),
+ * aceito pela AWS e por serviços compatíveis como o MinIO. O corpo não é assinado (UNSIGNED-PAYLOAD),
+ * para que uploads sejam enviados direto do arquivo sem uma leitura extra para o hash.
+ */
+final class AssinaturaS3 {
+
+    private static final String ALGORITMO = "AWS4-HMAC-SHA256";
+    private static final String CORPO_NAO_ASSINADO = "UNSIGNED-PAYLOAD";
+    private static final String CABECALHOS_ASSINADOS = "host;x-amz-content-sha256;x-amz-date";
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final String regiao;
+    private final String chaveAcesso;
+    private final String chaveSecreta;
+    private final Clock relogio;
+
+    AssinaturaS3(String regiao, String chaveAcesso, String chaveSecreta) {
+        this(regiao, chaveAcesso, chaveSecreta, Clock.systemUTC());
+    }
+
+    AssinaturaS3(String regiao, String chaveAcesso, String chaveSecreta, Clock relogio) {
+        this.regiao = regiao;
+        this.chaveAcesso = chaveAcesso;
+        this.chaveSecreta = chaveSecreta;
+        this.relogio = relogio;
+    }
+
+    void assinar(HttpRequest.Builder requisicao, String metodo, URI uri, String caminho, String consulta) {
+        String dataHora = ZonedDateTime.now(relogio).withZoneSameInstant(ZoneOffset.UTC).format(FORMATO_DATA_HORA);
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String requisicaoCanonica = requisicaoCanonica(metodo, caminho, consulta, host, dataHora, CORPO_NAO_ASSINADO);
+
+        requisicao.header("x-amz-date", dataHora)
+                .header("x-amz-content-sha256", CORPO_NAO_ASSINADO)
+                .header("Authorization", ALGORITMO + " Credential=" + chaveAcesso + "/" + escopo(dataHora)
+                        + ", SignedHeaders=" + CABECALHOS_ASSINADOS
+                        + ", Signature=" + assinatura(dataHora, requisicaoCanonica));
+    }
+
+    static String requisicaoCanonica(String metodo, String caminho, String consulta, String host, String dataHora,
+                                     String hashCorpo) {
+        return metodo + "\n" + caminho + "\n" + consulta + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + hashCorpo + "\n"
+                + "x-amz-date:" + dataHora + "\n\n"
+                + CABECALHOS_ASSINADOS + "\n" + hashCorpo;
+    }
+
+    String assinatura(String dataHora, String requisicaoCanonica) {
+        String textoAssinado = ALGORITMO + "\n" + dataHora + "\n" + escopo(dataHora) + "\n"
+                + hex(sha256(requisicaoCanonica));
+
+        byte[] chave = hmac(("AWS4" + chaveSecreta).getBytes(StandardCharsets.UTF_8), dataHora.substring(0, 8));
+        chave = hmac(chave, regiao);
+        chave = hmac(chave, "s3");
+        chave = hmac(chave, "aws4_request");
+        return hex(hmac(chave, textoAssinado));
+    }
+
+    private String escopo(String dataHora) {
+        return dataHora.substring(0, 8) + "/" + regiao + "/s3/aws4_request";
+    }
+
+    // Parâmetros ordenados e codificados, no formato exigido pela requisição canônica
+    static String consultaCanonica(Map<String, String> parametros) {
+        return new TreeMap<>(parametros).entrySet().stream()
+                .map(p -> codificar(p.getKey(), true) + "=" + codificar(p.getValue(), true))
+                .collect(Collectors.joining("&"));
+    }
+
+    // Codificação RFC 3986; em caminhos a barra é mantida
+    static String codificar(String valor, boolean codificarBarra) {
+        StringBuilder resultado = new StringBuilder();
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !codificarBarra)) {
+                resultado.append(c);
+            } else {
+                resultado.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return resultado.toString();
+    }
+
+    private static byte[] hmac(byte[] chave, String texto) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(chave, "HmacSHA256"));
+            return mac.doFinal(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sha256(String texto) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
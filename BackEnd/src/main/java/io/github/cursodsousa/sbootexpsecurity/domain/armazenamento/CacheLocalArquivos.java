@@ -0,0 +1,181 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cópias locais de arquivos de um armazenamento remoto, limitadas por tamanho total e descartadas
+ * pela ordem do uso menos recente (LRU). Arquivos quentes são servidos do disco local, inclusive com
+ * envio sem cópia; downloads simultâneos da mesma chave compartilham uma única busca remota.
+ */
+public class CacheLocalArquivos {
+
+    // Arquivos usados há pouco não são descartados: podem estar sendo enviados (sendfile abre o arquivo depois)
+    private static final long PROTECAO_USO_RECENTE_MS = 60_000;
+
+    @FunctionalInterface
+    public interface Carregador {
+        void carregar(Path destino) throws IOException;
+    }
+
+    private static final class Entrada {
+        private final long tamanho;
+        private long ultimoUso;
+
+        private Entrada(long tamanho, long ultimoUso) {
+            this.tamanho = tamanho;
+            this.ultimoUso = ultimoUso;
+        }
+    }
+
+    private final Path diretorio;
+    private final long tamanhoMaximo;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Path>> carregando = new ConcurrentHashMap<>();
+    private long tamanhoTotal;
+
+    public CacheLocalArquivos(Path diretorio, long tamanhoMaximo) {
+        this.diretorio = diretorio.toAbsolutePath().normalize();
+        this.tamanhoMaximo = tamanhoMaximo;
+        try {
+            Files.createDirectories(this.diretorio);
+            indexarExistentes();
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível preparar o cache local de arquivos", e);
+        }
+    }
+
+    public Path obter(String chave, Carregador carregador) throws IOException {
+        Path existente = buscar(chave);
+        if (existente != null) return existente;
+
+        CompletableFuture<Path> carga = new CompletableFuture<>();
+        CompletableFuture<Path> emAndamento = carregando.putIfAbsent(chave, carga);
+        if (emAndamento != null) return aguardar(emAndamento);
+
+        try {
+            Path arquivo = buscar(chave);
+            if (arquivo == null) {
+                Path temporario = Files.createTempFile(diretorio, "cache-", ".tmp");
+                try {
+                    carregador.carregar(temporario);
+                    arquivo = adicionar(chave, temporario);
+                } finally {
+                    Files.deleteIfExists(temporario);
+                }
+            }
+            carga.complete(arquivo);
+            return arquivo;
+        } catch (IOException | RuntimeException e) {
+            carga.completeExceptionally(e);
+            throw e;
+        } finally {
+            carregando.remove(chave);
+        }
+    }
+
+    // Move o arquivo para o cache (ex.: logo após o upload, que é quando ele costuma ser mais acessado)
+    public synchronized Path adicionar(String chave, Path origem) throws IOException {
+        Path destino = caminho(chave);
+        long tamanho = Files.size(origem);
+        Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        Entrada anterior = entradas.put(chave, new Entrada(tamanho, System.currentTimeMillis()));
+        if (anterior != null) tamanhoTotal -= anterior.tamanho;
+        tamanhoTotal += tamanho;
+        liberarEspaco();
+        return destino;
+    }
+
+    public synchronized void remover(String chave) throws IOException {
+        Entrada entrada = entradas.remove(chave);
+        if (entrada != null) tamanhoTotal -= entrada.tamanho;
+        Files.deleteIfExists(caminho(chave));
+    }
+
+    private synchronized Path buscar(String chave) {
+        Entrada entrada = entradas.get(chave);
+        if (entrada == null) return null;
+
+        Path arquivo = caminho(chave);
+        if (!Files.isRegularFile(arquivo)) {
+            entradas.remove(chave);
+            tamanhoTotal -= entrada.tamanho;
+            return null;
+        }
+        entrada.ultimoUso = System.currentTimeMillis();
+        return arquivo;
+    }
+
+    private void liberarEspaco() throws IOException {
+        long limiteUso = System.currentTimeMillis() - PROTECAO_USO_RECENTE_MS;
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (tamanhoTotal > tamanhoMaximo && iterador.hasNext()) {
+            Map.Entry<String, Entrada> entrada = iterador.next();
+            if (entrada.getValue().ultimoUso > limiteUso) continue;
+
+            iterador.remove();
+            tamanhoTotal -= entrada.getValue().tamanho;
+            Files.deleteIfExists(caminho(entrada.getKey()));
+        }
+    }
+
+    // Após reinício, a ordem de uso é aproximada pela data de modificação dos arquivos
+    private void indexarExistentes() throws IOException {
+        record Existente(String chave, BasicFileAttributes atributos) {
+        }
+        List<Existente> existentes = new ArrayList<>();
+        try (DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio)) {
+            for (Path arquivo : conteudo) {
+                if (arquivo.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(arquivo);
+                    continue;
+                }
+                BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+                if (atributos.isRegularFile()) {
+                    existentes.add(new Existente(arquivo.getFileName().toString(), atributos));
+                }
+            }
+        }
+        existentes.sort(Comparator.comparing(existente -> existente.atributos().lastModifiedTime()));
+        for (Existente existente : existentes) {
+            long tamanho = existente.atributos().size();
+            entradas.put(existente.chave(), new Entrada(tamanho, existente.atributos().lastModifiedTime().toMillis()));
+            tamanhoTotal += tamanho;
+        }
+    }
+
+    private Path caminho(String chave) {
+        Path arquivo = diretorio.resolve(chave).normalize();
+        if (!arquivo.getParent().equals(diretorio)) {
+            throw new IllegalArgumentException("Chave de arquivo inválida");
+        }
+        return arquivo;
+    }
+
+    private static Path aguardar(CompletableFuture<Path> carga) throws IOException {
+        try {
+            return carga.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException(e.getCause());
+        }
+    }
+}
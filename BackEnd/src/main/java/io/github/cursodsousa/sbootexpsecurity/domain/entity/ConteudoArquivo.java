@@ -0,0 +1,32 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Conteúdo armazenado uma única vez, identificado pelo SHA-256; referencias = documentos que apontam para ele
+@Entity
+@Table(name = "conteudo_arquivo")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteudoArquivo {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private long tamanho;
+
+    @Column(nullable = false)
+    private int referencias;
+
+    // "gzip" quando os bytes armazenados estão comprimidos; nulo = conteúdo original
+    @Column(length = 16)
+    private String codificacao;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "documento")
+@Table(name = "documento", indexes = {
+        @Index(name = "idx_documento_hash_conteudo", columnList = "hashConteudo")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,6 +22,14 @@ public class Documento {
     private Long tamanho;
     private String caminhoArquivo;
 
+    // SHA-256 do conteúdo (chave em conteudo_arquivo); nulo em documentos anteriores ao armazenamento por conteúdo
+    @Column(length = 64)
+    private String hashConteudo;
+
+    // "gzip" quando os bytes armazenados estão comprimidos; nulo = conteúdo original
+    @Column(length = 16)
+    private String codificacao;
+
     @ManyToOne
     @JoinColumn(name = "projeto_id")  // Coluna FK em `Documento`
     private Projeto projeto;
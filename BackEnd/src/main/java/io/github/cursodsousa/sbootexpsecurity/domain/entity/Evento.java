@@ -7,12 +7,16 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "evento")
+@Table(name = "evento", indexes = {
+        @Index(name = "idx_evento_status_criado", columnList = "status, criadoEm")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -34,6 +38,11 @@ public class Evento {
     @Column(nullable = false)
     private StatusEvento status = StatusEvento.PENDENTE;
 
+    // Momento do envio, usado para ordenar a fila de aprovação (linhas antigas ficam nulas e vêm primeiro)
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime criadoEm;
+
     @NotNull(message = "A data de início é obrigatória")
     private LocalDate dataInicio;
 
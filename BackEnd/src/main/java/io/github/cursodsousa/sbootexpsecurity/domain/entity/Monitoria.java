@@ -8,10 +8,12 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.cglib.core.Local;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Set;
 
@@ -19,7 +21,13 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "monitoria")
+@Table(name = "monitoria", indexes = {
+        @Index(name = "idx_monitoria_curso_semestre_status", columnList = "curso_id, semestre, status"),
+        @Index(name = "idx_monitoria_disciplina_semestre_status", columnList = "disciplina_id, semestre, status"),
+        @Index(name = "idx_monitoria_status_semestre", columnList = "status, semestre"),
+        @Index(name = "idx_monitoria_bolsa_semestre_curso", columnList = "bolsa, semestre, curso_id"),
+        @Index(name = "idx_monitoria_status_criado", columnList = "status, criadoEm")
+})
 public class Monitoria {
 
     @Id
@@ -70,6 +78,10 @@ public class Monitoria {
 
     @Enumerated(EnumType.STRING)
     private StatusMonitoria status = StatusMonitoria.PENDENTE;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime criadoEm;
     
 
 }
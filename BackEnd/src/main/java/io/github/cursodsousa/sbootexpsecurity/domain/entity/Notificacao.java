@@ -0,0 +1,56 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Registro da caixa de saída (outbox): gravado na mesma transação da aprovação e enviado depois pelo despachante
+@Entity
+@Table(name = "notificacao_outbox", indexes = {
+        @Index(name = "idx_notificacao_status_proxima", columnList = "status, proximaTentativa")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Notificacao {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String corpo;
+
+    // E-mails separados por vírgula; uma linha por evento, independente do número de destinatários
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String destinatarios;
+
+    // Quantos destinatários já receberam, para que uma nova tentativa não reenvie aos anteriores
+    private int destinatariosEnviados;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusNotificacao status;
+
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    // Dona da reserva atual (um token por lote reservado); só ela grava o progresso do envio
+    @Column(length = 36)
+    private String reserva;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    @Column(length = 1000)
+    private String ultimoErro;
+}
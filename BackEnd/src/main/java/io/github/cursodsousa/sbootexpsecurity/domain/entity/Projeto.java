@@ -2,12 +2,20 @@ package io.github.cursodsousa.sbootexpsecurity.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "projeto")
+@Table(name = "projeto", indexes = {
+        @Index(name = "idx_projeto_status_criado", columnList = "status, criadoEm")
+})
+@DynamicUpdate // UPDATE só com as colunas alteradas; evita reescrever os campos TEXT a cada PATCH
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,15 +26,26 @@ public class Projeto {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long versao;
+
     @Column(nullable = false)
     private String titulo;
 
+    // Campos longos: carregados sob demanda, todos juntos (grupo "conteudo"), via bytecode enhancement
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("conteudo")
     @Column(nullable = false, columnDefinition = "TEXT")
     private String descricao;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("conteudo")
     @Column(nullable = false, columnDefinition = "TEXT")
     private String objetivos;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("conteudo")
     @Column(columnDefinition = "TEXT")
     private String justificativa;
 
@@ -34,6 +53,10 @@ public class Projeto {
     @Column(nullable = false)
     private StatusProjeto status = StatusProjeto.PENDENTE;
 
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime criadoEm;
+
     private LocalDate dataInicio;
     private LocalDate dataTermino;
 
@@ -51,16 +74,22 @@ public class Projeto {
     private Integer limiteParticipantes;
     private String publicoAlvo;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("conteudo")
     @Column(columnDefinition = "TEXT")
     private String metodologia;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("conteudo")
     @Column(columnDefinition = "TEXT")
     private String resultadosEsperados;
 
     private String palavrasChave;
 
+    // Set (e não bag) para que o Hibernate altere apenas as linhas incluídas/removidas
     @ElementCollection
-    private List<String> emailsParticipantes;
+    @OrderBy
+    private Set<String> emailsParticipantes;
 
     @OneToMany(mappedBy = "projeto", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Documento> documentos;
@@ -0,0 +1,5 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.entity;
+
+public enum StatusNotificacao {
+    PENDENTE, ENVIADA, FALHA
+}
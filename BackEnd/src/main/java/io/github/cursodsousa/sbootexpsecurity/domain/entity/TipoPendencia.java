@@ -0,0 +1,7 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.entity;
+
+public enum TipoPendencia {
+    EVENTO,
+    PROJETO,
+    MONITORIA
+}
@@ -0,0 +1,47 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Sessão de upload em partes (chunks); o mapa de partes recebidas permite retomar uploads interrompidos
+@Entity
+@Table(name = "upload_sessao")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessao {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false)
+    private String nomeArquivo;
+
+    private String tipoArquivo;
+
+    @Column(nullable = false)
+    private long tamanhoTotal;
+
+    @Column(nullable = false)
+    private int tamanhoChunk;
+
+    @Column(nullable = false)
+    private int totalChunks;
+
+    // BitSet serializado: bit N ligado = parte N gravada e com checksum conferido
+    @Column(length = 8192)
+    private byte[] chunksRecebidos;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusUpload status;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime atualizadoEm;
+}
@@ -14,7 +14,13 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "Usuario")
+@Table(name = "Usuario",
+        uniqueConstraints = @UniqueConstraint(name = "uk_usuario_login", columnNames = "login"),
+        indexes = {
+                @Index(name = "idx_usuario_role_login", columnList = "role, login"),
+                @Index(name = "idx_usuario_nome", columnList = "nome"),
+                @Index(name = "idx_usuario_email", columnList = "email")
+        })
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,51 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.ConteudoArquivo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConteudoArquivoRepository extends JpaRepository<ConteudoArquivo, String> {
+
+    // Insere com uma referência ou incrementa de forma atômica, mesmo com uploads simultâneos do mesmo conteúdo
+    @Modifying
+    @Query(value = "insert into conteudo_arquivo (hash, tamanho, referencias, codificacao, criado_em) "
+            + "values (:hash, :tamanho, 1, :codificacao, now()) "
+            + "on duplicate key update referencias = referencias + 1", nativeQuery = true)
+    void adicionarReferencia(@Param("hash") String hash, @Param("tamanho") long tamanho,
+                             @Param("codificacao") String codificacao);
+
+    // Consultas nativas para não depender de uma instância já carregada no contexto de persistência
+    @Query(value = "select codificacao from conteudo_arquivo where hash = :hash", nativeQuery = true)
+    String buscarCodificacao(@Param("hash") String hash);
+
+    @Query(value = "select hash, codificacao from conteudo_arquivo where hash in (:hashes)", nativeQuery = true)
+    List<Object[]> buscarCodificacoes(@Param("hashes") Collection<String> hashes);
+
+    // Data de gravação do conteúdo, igual em todos os nós; vira o Last-Modified dos downloads
+    @Query("select c.criadoEm from ConteudoArquivo c where c.hash = :hash")
+    Optional<LocalDateTime> buscarCriadoEm(@Param("hash") String hash);
+
+    @Modifying
+    @Query(value = "update conteudo_arquivo set codificacao = :codificacao where hash = :hash", nativeQuery = true)
+    void atualizarCodificacao(@Param("hash") String hash, @Param("codificacao") String codificacao);
+
+    // Garante o registro (sem nova referência) apenas para travá-lo; usado pela limpeza de arquivos órfãos
+    @Modifying
+    @Query(value = "insert into conteudo_arquivo (hash, tamanho, referencias, criado_em) "
+            + "values (:hash, :tamanho, 0, now()) "
+            + "on duplicate key update referencias = referencias", nativeQuery = true)
+    void garantirRegistro(@Param("hash") String hash, @Param("tamanho") long tamanho);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ConteudoArquivo c where c.hash = :hash")
+    Optional<ConteudoArquivo> buscarParaAtualizar(@Param("hash") String hash);
+}
@@ -0,0 +1,75 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Documento;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gravações em lote via JDBC para anexar vários documentos de uma vez: com ids IDENTITY o Hibernate
+ * não agrupa inserts, então as linhas vão num único batch (reescrito pelo driver em um insert multi-linha).
+ */
+@Repository
+public class DocumentoLoteRepository {
+
+    private static final String INSERIR_REFERENCIA = "insert into conteudo_arquivo "
+            + "(hash, tamanho, referencias, codificacao, criado_em) values (?, ?, 1, ?, now()) "
+            + "on duplicate key update referencias = referencias + 1";
+    private static final String INSERIR_DOCUMENTO = "insert into documento "
+            + "(nome_arquivo, tipo_arquivo, tamanho, caminho_arquivo, hash_conteudo, codificacao, projeto_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    public record ReferenciaConteudo(String hash, long tamanho, String codificacao) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentoLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Em ordem de hash, para que lotes concorrentes travem as linhas de conteúdo sempre na mesma ordem
+    public void adicionarReferencias(List<ReferenciaConteudo> referencias) {
+        List<ReferenciaConteudo> ordenadas = referencias.stream()
+                .sorted(Comparator.comparing(ReferenciaConteudo::hash))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERIR_REFERENCIA, ordenadas, ordenadas.size(), (ps, referencia) -> {
+            ps.setString(1, referencia.hash());
+            ps.setLong(2, referencia.tamanho());
+            ps.setString(3, referencia.codificacao());
+        });
+    }
+
+    // Insere os documentos num único batch e preenche os ids gerados
+    public void inserirDocumentos(List<Documento> documentos) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (PreparedStatement ps = conexao.prepareStatement(INSERIR_DOCUMENTO, Statement.RETURN_GENERATED_KEYS)) {
+                for (Documento documento : documentos) {
+                    ps.setString(1, documento.getNomeArquivo());
+                    ps.setString(2, documento.getTipoArquivo());
+                    ps.setObject(3, documento.getTamanho(), Types.BIGINT);
+                    ps.setString(4, documento.getCaminhoArquivo());
+                    ps.setString(5, documento.getHashConteudo());
+                    ps.setString(6, documento.getCodificacao());
+                    ps.setObject(7, documento.getProjeto() != null ? documento.getProjeto().getId() : null, Types.BIGINT);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet chaves = ps.getGeneratedKeys()) {
+                    for (int i = 0; chaves.next() && i < documentos.size(); i++) {
+                        documentos.get(i).setId(chaves.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -1,7 +1,27 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.repository;
 
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Documento;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface DocumentoRepository extends JpaRepository<Documento, Long> {
-}
\ No newline at end of file
+
+    // Dos nomes informados, quais ainda pertencem a algum documento
+    @Query("select distinct d.caminhoArquivo from Documento d where d.caminhoArquivo in :caminhos")
+    List<String> listarCaminhosEmUso(@Param("caminhos") Collection<String> caminhos);
+
+    long countByHashConteudo(String hashConteudo);
+
+    List<Documento> findByProjetoIdOrderByIdAsc(Long projetoId);
+
+    @Query(value = "select d.id as id, d.nomeArquivo as nomeArquivo, d.tipoArquivo as tipoArquivo, "
+            + "d.tamanho as tamanho from Documento d where d.projeto.id = :projetoId order by d.id",
+            countQuery = "select count(d) from Documento d where d.projeto.id = :projetoId")
+    Page<DocumentoResumo> listarResumosPorProjeto(@Param("projetoId") Long projetoId, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+// Projeção para a listagem de anexos de um projeto
+public interface DocumentoResumo {
+    Long getId();
+    String getNomeArquivo();
+    String getTipoArquivo();
+    Long getTamanho();
+}
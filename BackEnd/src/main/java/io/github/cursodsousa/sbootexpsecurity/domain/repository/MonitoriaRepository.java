@@ -1,10 +1,44 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.repository;
 
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface MonitoriaRepository extends JpaRepository<Monitoria, Long> {
-    // Consultas customizadas se necessário
+public interface MonitoriaRepository extends JpaRepository<Monitoria, Long>, JpaSpecificationExecutor<Monitoria>,
+        MonitoriaRepositoryCustom {
+
+    String ASSOCIACOES = "select distinct m from Monitoria m join fetch m.disciplina join fetch m.curso"
+            + " left join fetch m.diasSemana";
+
+    // Página já escolhida por buscarIds: disciplina, curso e dias da semana numa única consulta
+    @Query(ASSOCIACOES + " where m.id in :ids")
+    List<Monitoria> buscarComAssociacoes(@Param("ids") Collection<Long> ids);
+
+    @Query(ASSOCIACOES + " order by m.id")
+    List<Monitoria> listarComAssociacoes();
+
+    // Bolsas agrupadas por curso, semestre e período: cursoId, semestre, dataInicio, dataTermino, soma, quantidade
+    @Query("select m.curso.id, m.semestre, m.dataInicio, m.dataTermino, sum(m.valorBolsa), count(m) from Monitoria m "
+            + "where m.bolsa = true and m.valorBolsa is not null and m.status not in :ignorados "
+            + "and (:cursoId is null or m.curso.id = :cursoId) and (:semestre is null or m.semestre = :semestre) "
+            + "and m.dataTermino >= :inicio and m.dataInicio <= :fim "
+            + "group by m.curso.id, m.semestre, m.dataInicio, m.dataTermino")
+    List<Object[]> somarBolsas(@Param("cursoId") Long cursoId, @Param("semestre") String semestre,
+                               @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                               @Param("ignorados") Collection<StatusMonitoria> ignorados);
+
+    // Dados do índice de ocupação de salas: id, sala, dataInicio, dataTermino, horarioInicio, horarioTermino
+    @Query("select m.id, m.sala, m.dataInicio, m.dataTermino, m.horarioInicio, m.horarioTermino from Monitoria m "
+            + "where m.sala is not null and m.status not in :ignorados")
+    List<Object[]> listarDadosOcupacao(Collection<StatusMonitoria> ignorados);
+
+    @Query("select m.id, d from Monitoria m join m.diasSemana d where m.sala is not null and m.status not in :ignorados")
+    List<Object[]> listarDiasOcupacao(Collection<StatusMonitoria> ignorados);
 }
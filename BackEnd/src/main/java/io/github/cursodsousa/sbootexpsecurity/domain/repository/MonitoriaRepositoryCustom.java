@@ -0,0 +1,12 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface MonitoriaRepositoryCustom {
+
+    // Página de ids (mais recentes primeiro) das monitorias que atendem ao filtro
+    Page<Long> buscarIds(Specification<Monitoria> filtro, Pageable pageable);
+}
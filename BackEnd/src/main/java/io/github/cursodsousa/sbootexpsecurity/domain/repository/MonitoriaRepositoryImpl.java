@@ -0,0 +1,54 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consulta só a coluna id com o filtro da Specification: o índice composto resolve o where e a ordenação,
+ * e as monitorias da página são carregadas depois com {@link MonitoriaRepository#buscarComAssociacoes}.
+ */
+public class MonitoriaRepositoryImpl implements MonitoriaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> buscarIds(Specification<Monitoria> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Monitoria> root = consulta.from(Monitoria.class);
+        Predicate condicao = filtro == null ? null : filtro.toPredicate(root, consulta, cb);
+        consulta.select(root.get("id")).orderBy(cb.desc(root.get("id")));
+        if (condicao != null) consulta.where(condicao);
+
+        List<Long> ids = entityManager.createQuery(consulta)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        long total;
+        if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+            total = ids.size();
+        } else {
+            CriteriaQuery<Long> contagem = cb.createQuery(Long.class);
+            Root<Monitoria> raiz = contagem.from(Monitoria.class);
+            Predicate condicaoContagem = filtro == null ? null : filtro.toPredicate(raiz, contagem, cb);
+            contagem.select(cb.count(raiz));
+            if (condicaoContagem != null) contagem.where(condicaoContagem);
+            total = entityManager.createQuery(contagem).getSingleResult();
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filtros combináveis de monitoria. Valor nulo significa "sem filtro" ({@code Specification.where} ignora).
+ * Curso e disciplina comparam a chave estrangeira, sem join, para aproveitar os índices compostos da tabela.
+ */
+public final class MonitoriaSpecifications {
+
+    private MonitoriaSpecifications() {
+    }
+
+    public static Specification<Monitoria> filtrar(Long cursoId, Long disciplinaId, String semestre,
+                                                   StatusMonitoria status, Boolean bolsa) {
+        return Specification.where(doCurso(cursoId))
+                .and(daDisciplina(disciplinaId))
+                .and(doSemestre(semestre))
+                .and(comStatus(status))
+                .and(comBolsa(bolsa));
+    }
+
+    public static Specification<Monitoria> doCurso(Long cursoId) {
+        return cursoId == null ? null : (root, query, cb) -> cb.equal(root.get("curso").get("id"), cursoId);
+    }
+
+    public static Specification<Monitoria> daDisciplina(Long disciplinaId) {
+        return disciplinaId == null ? null : (root, query, cb) -> cb.equal(root.get("disciplina").get("id"), disciplinaId);
+    }
+
+    public static Specification<Monitoria> doSemestre(String semestre) {
+        return semestre == null || semestre.isBlank() ? null
+                : (root, query, cb) -> cb.equal(root.get("semestre"), semestre.trim());
+    }
+
+    public static Specification<Monitoria> comStatus(StatusMonitoria status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Monitoria> comBolsa(Boolean bolsa) {
+        return bolsa == null ? null : (root, query, cb) -> cb.equal(root.get("bolsa"), bolsa);
+    }
+}
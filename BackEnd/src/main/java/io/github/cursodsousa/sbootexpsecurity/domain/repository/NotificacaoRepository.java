@@ -0,0 +1,25 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Notificacao;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+
+    // Trava as linhas vencidas do lote; linhas já travadas por outra instância são puladas (MySQL 8+)
+    @Query(value = "select * from notificacao_outbox where status = 'PENDENTE' and proxima_tentativa <= :agora "
+            + "order by id limit :limite for update skip locked", nativeQuery = true)
+    List<Notificacao> buscarParaReservar(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    // Vazio quando a reserva venceu e outra instância reservou a notificação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select n from Notificacao n where n.id = :id and n.reserva = :reserva and n.status = 'PENDENTE'")
+    Optional<Notificacao> buscarReservada(@Param("id") Long id, @Param("reserva") String reserva);
+}
@@ -1,10 +1,16 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.repository;
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ParticipanteDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.ParticipanteEvento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ParticipanteRepository extends JpaRepository<ParticipanteEvento, Long> {
-    List<ParticipanteEvento> findByEventoId(Long eventoId);
+    // Só as colunas do participante: sem carregar (EAGER) o evento de cada linha
+    @Query("select new io.github.cursodsousa.sbootexpsecurity.api.dto.ParticipanteDTO(p.id, p.nome, p.email) "
+            + "from ParticipanteEvento p where p.evento.id = :eventoId order by p.id")
+    List<ParticipanteDTO> listarPorEvento(@Param("eventoId") Long eventoId);
 }
@@ -0,0 +1,73 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.TipoPendencia;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fila de aprovação: eventos, projetos e monitorias pendentes numa única consulta UNION ALL, só com as colunas
+ * da listagem. Cada ramo lê o índice (status, criado_em) já na ordem e para em offset + limite linhas,
+ * então a ordenação final junta no máximo três fatias pequenas.
+ */
+@Repository
+public class PendenciaRepository {
+
+    private static final Map<TipoPendencia, String> RAMOS = new EnumMap<>(Map.of(
+            TipoPendencia.EVENTO, "(select 'EVENTO' as tipo, e.id, e.titulo, e.criado_em as enviado_em "
+                    + "from evento e where e.status = 'PENDENTE' order by e.criado_em, e.id limit ?)",
+            TipoPendencia.PROJETO, "(select 'PROJETO' as tipo, p.id, p.titulo, p.criado_em as enviado_em "
+                    + "from projeto p where p.status = 'PENDENTE' order by p.criado_em, p.id limit ?)",
+            TipoPendencia.MONITORIA, "(select 'MONITORIA' as tipo, m.id, concat(d.nome, ' - ', m.semestre) as titulo, "
+                    + "m.criado_em as enviado_em from monitoria m join disciplina d on d.id = m.disciplina_id "
+                    + "where m.status = 'PENDENTE' order by m.criado_em, m.id limit ?)"));
+
+    private static final Map<TipoPendencia, String> CONTAGENS = new EnumMap<>(Map.of(
+            TipoPendencia.EVENTO, "select 'EVENTO' as tipo, count(*) as total from evento where status = 'PENDENTE'",
+            TipoPendencia.PROJETO, "select 'PROJETO' as tipo, count(*) as total from projeto where status = 'PENDENTE'",
+            TipoPendencia.MONITORIA, "select 'MONITORIA' as tipo, count(*) as total from monitoria where status = 'PENDENTE'"));
+
+    public record Pendencia(TipoPendencia tipo, Long id, String titulo, LocalDateTime enviadoEm) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PendenciaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Mais antigas primeiro; registros anteriores à coluna criado_em (nulos) encabeçam a fila
+    public List<Pendencia> listar(Set<TipoPendencia> tipos, int offset, int limite) {
+        List<String> ramos = new ArrayList<>();
+        List<Object> parametros = new ArrayList<>();
+        for (TipoPendencia tipo : tipos) {
+            ramos.add(RAMOS.get(tipo));
+            parametros.add(offset + limite);
+        }
+        parametros.add(limite);
+        parametros.add(offset);
+
+        String sql = String.join(" union all ", ramos) + " order by enviado_em, tipo, id limit ? offset ?";
+        return jdbcTemplate.query(sql, (rs, linha) -> {
+            Timestamp enviadoEm = rs.getTimestamp("enviado_em");
+            return new Pendencia(TipoPendencia.valueOf(rs.getString("tipo")), rs.getLong("id"),
+                    rs.getString("titulo"), enviadoEm == null ? null : enviadoEm.toLocalDateTime());
+        }, parametros.toArray());
+    }
+
+    public Map<TipoPendencia, Long> contar(Set<TipoPendencia> tipos) {
+        List<String> contagens = tipos.stream().map(CONTAGENS::get).toList();
+        Map<TipoPendencia, Long> totais = new EnumMap<>(TipoPendencia.class);
+        jdbcTemplate.query(String.join(" union all ", contagens), rs -> {
+            totais.put(TipoPendencia.valueOf(rs.getString("tipo")), rs.getLong("total"));
+        });
+        return totais;
+    }
+}
@@ -2,6 +2,34 @@ package io.github.cursodsousa.sbootexpsecurity.domain.repository;
 
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Projeto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProjetoRepository extends JpaRepository<Projeto, Long> {
-}
\ No newline at end of file
+
+    @Query("select p.id, p.areaConhecimento, p.tipoProjeto, p.status, p.palavrasChave from Projeto p")
+    List<Object[]> listarDadosIndice();
+
+    String CAMPOS_RESUMO = "select p.id as id, p.versao as versao, p.titulo as titulo, p.descricao as descricao, "
+            + "p.dataInicio as dataInicio, p.dataTermino as dataTermino, "
+            + "p.areaConhecimento as areaConhecimento, p.possuiOrcamento as possuiOrcamento, "
+            + "p.orcamento as orcamento, p.urlEdital as urlEdital, p.aceitouTermos as aceitouTermos, "
+            + "p.tipoProjeto as tipoProjeto, p.limiteParticipantes as limiteParticipantes, "
+            + "p.publicoAlvo as publicoAlvo, p.palavrasChave as palavrasChave from Projeto p";
+
+    @Query(CAMPOS_RESUMO + " order by p.id")
+    List<ProjetoResumo> listarResumos();
+
+    @Query(CAMPOS_RESUMO + " where p.id in :ids")
+    List<ProjetoResumo> listarResumosPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id, e from Projeto p join p.emailsParticipantes e")
+    List<Object[]> listarTodosEmails();
+
+    // Uma consulta para os e-mails de vários projetos, no lugar de uma carga de coleção por projeto
+    @Query("select p.id, e from Projeto p join p.emailsParticipantes e where p.id in :ids")
+    List<Object[]> listarEmailsPorProjetos(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,22 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import java.time.LocalDate;
+
+// Projeção para listagens: só a descrição entre os campos TEXT
+public interface ProjetoResumo {
+    Long getId();
+    long getVersao();
+    String getTitulo();
+    String getDescricao();
+    LocalDate getDataInicio();
+    LocalDate getDataTermino();
+    String getAreaConhecimento();
+    boolean isPossuiOrcamento();
+    Double getOrcamento();
+    String getUrlEdital();
+    boolean isAceitouTermos();
+    String getTipoProjeto();
+    Integer getLimiteParticipantes();
+    String getPublicoAlvo();
+    String getPalavrasChave();
+}
@@ -0,0 +1,42 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UploadSessao;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessaoRepository extends JpaRepository<UploadSessao, String> {
+
+    // Partes de um mesmo upload podem chegar em paralelo; o lock evita perder bits do mapa
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UploadSessao u where u.id = :id")
+    Optional<UploadSessao> buscarParaAtualizar(@Param("id") String id);
+
+    /**
+     * O mapa de partes é lido e gravado por consultas nativas, sem passar pela entidade: a sessão carregada no
+     * início da requisição fica no contexto de persistência e não seria relida, perdendo partes recebidas em paralelo.
+     */
+    @Query(value = "select chunks_recebidos from upload_sessao where id = :id", nativeQuery = true)
+    byte[] buscarPartes(@Param("id") String id);
+
+    // Nulo quando a sessão não existe mais ou não está aberta
+    @Query(value = "select chunks_recebidos from upload_sessao where id = :id and status = 'ABERTO' for update",
+            nativeQuery = true)
+    byte[] buscarPartesAbertasParaAtualizar(@Param("id") String id);
+
+    @Modifying
+    @Query(value = "update upload_sessao set chunks_recebidos = :partes, atualizado_em = :agora where id = :id",
+            nativeQuery = true)
+    void atualizarPartes(@Param("id") String id, @Param("partes") byte[] partes, @Param("agora") LocalDateTime agora);
+
+    // Última atividade: a parte mais recente recebida (ou a criação, se nenhuma chegou)
+    @Query("select u from UploadSessao u where coalesce(u.atualizadoEm, u.criadoEm) < :limite")
+    List<UploadSessao> buscarInativasDesde(@Param("limite") LocalDateTime limite);
+}
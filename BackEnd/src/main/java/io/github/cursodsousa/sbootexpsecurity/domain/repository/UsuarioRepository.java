@@ -1,10 +1,52 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.repository;
 
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UsuarioResumoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.List;
+
 public interface UsuarioRepository extends JpaRepository<Usuario, String> {
+
+    // Trechos de listarDiretorioPorPrefixo: cada ramo filtra uma coluna
+    String RAMO_DIRETORIO_INICIO = "(select id, nome, login, email, role from usuario where ";
+    String RAMO_DIRETORIO_FIM = " and (:role is null or role = :role) and (:depoisDe is null or login > :depoisDe) "
+            + "order by login limit :limite)";
+
     UserDetails findByLogin(String login);
-}
\ No newline at end of file
+
+    // id, nome e login para o índice de autocompletar
+    @Query("select u.id, u.nome, u.login from Usuario u")
+    List<Object[]> listarNomes();
+
+    @Query("select new io.github.cursodsousa.sbootexpsecurity.api.dto.UsuarioResumoDTO(u.id, u.nome, u.login, u.email, u.role) "
+            + "from Usuario u order by u.login")
+    List<UsuarioResumoDTO> listarResumos();
+
+    // Paginação por chave (login > depoisDe, em ordem de login) sobre o índice único; sem count e sem offset
+    @Query("select new io.github.cursodsousa.sbootexpsecurity.api.dto.UsuarioResumoDTO(u.id, u.nome, u.login, u.email, u.role) "
+            + "from Usuario u "
+            + "where (:role is null or u.role = :role) "
+            + "and (:depoisDe is null or u.login > :depoisDe) "
+            + "order by u.login")
+    List<UsuarioResumoDTO> listarDiretorio(@Param("role") UserRole role, @Param("depoisDe") String depoisDe,
+                                           Pageable pageable);
+
+    // Mesma página filtrada por prefixo: um intervalo por coluna (uk_usuario_login, idx_usuario_nome e
+    // idx_usuario_email), cada um já cortado no cursor e no limite, e a união (sem repetir quem casa em mais de
+    // uma coluna) ordenada por login. Um "or" entre as três colunas não usa nenhum desses índices.
+    // Colunas: id, nome, login, email, role
+    @Query(value = "select u.id, u.nome, u.login, u.email, u.role from ("
+            + RAMO_DIRETORIO_INICIO + "login like :prefixo escape '!'" + RAMO_DIRETORIO_FIM
+            + " union " + RAMO_DIRETORIO_INICIO + "nome like :prefixo escape '!'" + RAMO_DIRETORIO_FIM
+            + " union " + RAMO_DIRETORIO_INICIO + "email like :prefixo escape '!'" + RAMO_DIRETORIO_FIM
+            + ") u order by u.login limit :limite", nativeQuery = true)
+    List<Object[]> listarDiretorioPorPrefixo(@Param("role") Integer role, @Param("prefixo") String prefixo,
+                                             @Param("depoisDe") String depoisDe, @Param("limite") int limite);
+}
@@ -39,7 +39,13 @@ public class SecurityConfig {
                         ).permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
+                        // Feed iCalendar assinado: o token vai no caminho, pois aplicativos de agenda não enviam Bearer
+                        .requestMatchers(HttpMethod.GET, "/api/monitoria/calendario/*/monitorias.ics").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/evento").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/documentos/armazenamento/migrar").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/monitoria/relatorios/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/pendencias").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/usuarios/diretorio").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
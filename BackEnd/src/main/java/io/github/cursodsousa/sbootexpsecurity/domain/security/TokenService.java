@@ -4,6 +4,7 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -11,11 +12,22 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class TokenService {
+    private static final String EMISSOR_CALENDARIO = "calendario";
+    private static final String CLAIM_MONITORIAS = "monitorias";
+
     @Value("${api.security.token.secret}")
     private String secret;
+    // Segredo próprio para os feeds de calendário: trocá-lo revoga todas as URLs já distribuídas
+    @Value("${app.monitoria.calendario.segredo:${api.security.token.secret}}")
+    private String segredoCalendario;
+
+    public record TokenCalendario(String login, List<Long> monitorias) {
+    }
 
     public String generateToken(Usuario usuario){
         try{
@@ -44,6 +56,36 @@ public class TokenService {
         }
     }
 
+    /**
+     * Token do feed iCalendar: assina o usuário e as monitorias do feed, sem expiração, porque o aplicativo de
+     * agenda assina a URL uma única vez. O emissor é outro, então o token não é aceito como Bearer na API.
+     */
+    public String gerarTokenCalendario(String login, List<Long> monitorias) {
+        try {
+            return JWT.create()
+                    .withIssuer(EMISSOR_CALENDARIO)
+                    .withSubject(login)
+                    .withClaim(CLAIM_MONITORIAS, monitorias.stream().distinct().sorted().toList())
+                    .sign(Algorithm.HMAC256(segredoCalendario));
+        } catch (JWTCreationException exception) {
+            throw new RuntimeException("Error while generating token", exception);
+        }
+    }
+
+    public Optional<TokenCalendario> validarTokenCalendario(String token) {
+        try {
+            DecodedJWT decodificado = JWT.require(Algorithm.HMAC256(segredoCalendario))
+                    .withIssuer(EMISSOR_CALENDARIO)
+                    .build()
+                    .verify(token);
+            List<Long> monitorias = decodificado.getClaim(CLAIM_MONITORIAS).asList(Long.class);
+            if (monitorias == null) return Optional.empty();
+            return Optional.of(new TokenCalendario(decodificado.getSubject(), monitorias));
+        } catch (JWTVerificationException exception) {
+            return Optional.empty();
+        }
+    }
+
     private Instant genExpirationDate(){
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
@@ -0,0 +1,234 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.DiaSemana;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaRepository;
+import jakarta.validation.ValidationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ocorrências das monitorias (recorrência semanal entre dataInicio e dataTermino).
+ * As recorrências ficam em cache por monitoria, com o ETag já calculado, e são invalidadas após cada alteração;
+ * as ocorrências são geradas sob demanda, intercalando as monitorias em ordem de horário, sem montar listas.
+ */
+@Service
+public class AgendaMonitoriaService {
+
+    public static final int MAXIMO_MONITORIAS = 500;
+    public static final int MAXIMO_DIAS_JANELA = 366;
+
+    private final MonitoriaRepository monitoriaRepository;
+    private final Map<Long, Recorrencia> cache = new ConcurrentHashMap<>();
+    // Incrementada a cada invalidação; leituras iniciadas antes dela não voltam ao cache
+    private final AtomicLong geracao = new AtomicLong();
+
+    public AgendaMonitoriaService(MonitoriaRepository monitoriaRepository) {
+        this.monitoriaRepository = monitoriaRepository;
+    }
+
+    public record Recorrencia(Long id, String disciplina, String curso, String sala, LocalDate dataInicio,
+                              LocalDate dataTermino, Set<DayOfWeek> dias, LocalTime horarioInicio,
+                              LocalTime horarioTermino, StatusMonitoria status, String etag) {
+
+        public boolean cancelada() {
+            return status == StatusMonitoria.CANCELADA || status == StatusMonitoria.REPROVADA;
+        }
+
+        // Primeira data da recorrência que cai num dos dias da semana, ou null
+        public LocalDate primeiraData() {
+            LocalDate data = dataInicio;
+            for (int i = 0; i < 7 && !data.isAfter(dataTermino); i++, data = data.plusDays(1)) {
+                if (dias.contains(data.getDayOfWeek())) return data;
+            }
+            return null;
+        }
+    }
+
+    public record Ocorrencia(Long monitoriaId, String disciplina, String sala,
+                             LocalDateTime inicio, LocalDateTime termino) {
+    }
+
+    // Recorrências na ordem dos ids pedidos; só as monitorias fora do cache são lidas, numa única consulta
+    @Transactional(readOnly = true)
+    public List<Recorrencia> buscar(Collection<Long> ids) {
+        if (ids.size() > MAXIMO_MONITORIAS) {
+            throw new ValidationException("Informe no máximo " + MAXIMO_MONITORIAS + " monitorias");
+        }
+        Map<Long, Recorrencia> encontradas = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Recorrencia recorrencia = cache.get(id);
+            if (recorrencia != null) encontradas.put(id, recorrencia);
+            else faltantes.add(id);
+        }
+        if (!faltantes.isEmpty()) {
+            long geracaoLeitura = geracao.get();
+            List<Recorrencia> lidas = new ArrayList<>();
+            for (Monitoria monitoria : monitoriaRepository.buscarComAssociacoes(faltantes)) {
+                Recorrencia recorrencia = converter(monitoria);
+                if (recorrencia != null) lidas.add(recorrencia);
+            }
+            lidas.forEach(recorrencia -> encontradas.put(recorrencia.id(), recorrencia));
+            guardar(lidas, geracaoLeitura);
+        }
+        return ids.stream().distinct().map(encontradas::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Só guarda o que foi lido se nenhuma invalidação aconteceu desde o início da leitura: a alteração pode ter
+     * sido confirmada depois do snapshot da consulta. A geração é conferida de novo após cada put, porque a
+     * invalidação pode ocorrer entre a conferência e o put; nesse caso a própria entrada é retirada.
+     */
+    private void guardar(List<Recorrencia> lidas, long geracaoLeitura) {
+        for (Recorrencia recorrencia : lidas) {
+            if (geracao.get() != geracaoLeitura) return;
+            cache.put(recorrencia.id(), recorrencia);
+            if (geracao.get() != geracaoLeitura) {
+                cache.remove(recorrencia.id(), recorrencia);
+                return;
+            }
+        }
+    }
+
+    // ETag do conjunto: combina os ETags de cada monitoria com a variante (formato e janela)
+    public String etag(List<Recorrencia> recorrencias, String variante) {
+        StringBuilder base = new StringBuilder(variante);
+        for (Recorrencia recorrencia : recorrencias) {
+            base.append('|').append(recorrencia.etag());
+        }
+        return "\"" + resumo(base.toString()) + "\"";
+    }
+
+    public void invalidarAposCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(id);
+                }
+            });
+        } else {
+            invalidar(id);
+        }
+    }
+
+    private void invalidar(Long id) {
+        geracao.incrementAndGet();
+        cache.remove(id);
+    }
+
+    /**
+     * Ocorrências das monitorias entre as datas (inclusive), em ordem de início. Cada monitoria é percorrida
+     * por um iterador próprio e uma fila de prioridade escolhe a próxima, então só há uma ocorrência
+     * pendente por monitoria em memória. Monitorias canceladas ou reprovadas não geram ocorrências.
+     */
+    public Iterator<Ocorrencia> expandir(List<Recorrencia> recorrencias, LocalDate de, LocalDate ate) {
+        if (ate.isBefore(de)) {
+            throw new ValidationException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (de.plusDays(MAXIMO_DIAS_JANELA).isBefore(ate)) {
+            throw new ValidationException("O período pode ter no máximo " + MAXIMO_DIAS_JANELA + " dias");
+        }
+        PriorityQueue<Expansao> fila = new PriorityQueue<>(Comparator
+                .comparing((Expansao e) -> e.proxima.inicio())
+                .thenComparing(e -> e.proxima.monitoriaId()));
+        for (Recorrencia recorrencia : recorrencias) {
+            if (recorrencia.cancelada()) continue;
+            Expansao expansao = new Expansao(recorrencia, de, ate);
+            if (expansao.avancar()) fila.add(expansao);
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !fila.isEmpty();
+            }
+
+            @Override
+            public Ocorrencia next() {
+                Expansao expansao = fila.poll();
+                if (expansao == null) throw new NoSuchElementException();
+                Ocorrencia ocorrencia = expansao.proxima;
+                if (expansao.avancar()) fila.add(expansao);
+                return ocorrencia;
+            }
+        };
+    }
+
+    private static final class Expansao {
+
+        private final Recorrencia recorrencia;
+        private final LocalDate ultima;
+        private LocalDate data;
+        private Ocorrencia proxima;
+
+        Expansao(Recorrencia recorrencia, LocalDate de, LocalDate ate) {
+            this.recorrencia = recorrencia;
+            this.data = de.isAfter(recorrencia.dataInicio()) ? de : recorrencia.dataInicio();
+            this.ultima = ate.isBefore(recorrencia.dataTermino()) ? ate : recorrencia.dataTermino();
+        }
+
+        boolean avancar() {
+            while (!data.isAfter(ultima)) {
+                LocalDate atual = data;
+                data = data.plusDays(1);
+                if (recorrencia.dias().contains(atual.getDayOfWeek())) {
+                    proxima = new Ocorrencia(recorrencia.id(), recorrencia.disciplina(), recorrencia.sala(),
+                            atual.atTime(recorrencia.horarioInicio()), atual.atTime(recorrencia.horarioTermino()));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static Recorrencia converter(Monitoria monitoria) {
+        if (monitoria.getDataInicio() == null || monitoria.getDataTermino() == null
+                || monitoria.getHorarioInicio() == null || monitoria.getHorarioTermino() == null) {
+            return null;
+        }
+
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        List<DiaSemana> diasOrdenados = new ArrayList<>(monitoria.getDiasSemana() == null ? Set.of() : monitoria.getDiasSemana());
+        Collections.sort(diasOrdenados);
+        for (DiaSemana dia : diasOrdenados) {
+            dias.add(IndiceOcupacaoSalas.diaJava(dia));
+        }
+
+        String disciplina = monitoria.getDisciplina().getNome();
+        String curso = monitoria.getCurso().getNome();
+        String etag = resumo(String.join("|", String.valueOf(monitoria.getId()), disciplina, curso,
+                String.valueOf(monitoria.getSala()), monitoria.getDataInicio().toString(),
+                monitoria.getDataTermino().toString(), diasOrdenados.toString(),
+                monitoria.getHorarioInicio().toString(), monitoria.getHorarioTermino().toString(),
+                String.valueOf(monitoria.getStatus())));
+
+        return new Recorrencia(monitoria.getId(), disciplina, curso, monitoria.getSala(), monitoria.getDataInicio(),
+                monitoria.getDataTermino(), dias, monitoria.getHorarioInicio(), monitoria.getHorarioTermino(),
+                monitoria.getStatus(), etag);
+    }
+
+    private static String resumo(String texto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,29 +1,114 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.service;
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ItemCatalogoDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Curso;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Disciplina;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.CursoRepository;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.DisciplinaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.api.OpenApiResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Cursos e disciplinas mudam poucas vezes por ano: ficam num retrato imutável em memória (arrays já ordenados
+ * por nome e mapas por id), trocado de uma vez a cada recarga. Leituras nunca vão ao banco; as listas da API
+ * já são montadas na recarga e, para gravar a chave estrangeira, são entregues referências JPA, sem select.
+ */
 @Service
 @RequiredArgsConstructor
 public class CatalogoService {
+
+    // Id desconhecido força uma recarga (cadastro recente no banco), no máximo uma a cada intervalo
+    private static final long INTERVALO_MINIMO_RECARGA_MS = 5000;
+
     @Autowired
     private DisciplinaRepository disciplinaRepository;
     @Autowired
     private CursoRepository cursoRepository;
+    @Autowired
+    private IndiceNomesService indiceNomesService;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Retrato retrato = new Retrato(new Curso[0], new Disciplina[0], Map.of(), Map.of(), List.of(), List.of());
+    private volatile long ultimaRecarga;
+
+    private record Retrato(Curso[] cursos, Disciplina[] disciplinas,
+                           Map<Long, Curso> cursoPorId, Map<Long, Disciplina> disciplinaPorId,
+                           List<ItemCatalogoDTO> itensCursos, List<ItemCatalogoDTO> itensDisciplinas) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.catalogo.recarga-ms:600000}", initialDelayString = "${app.catalogo.recarga-ms:600000}")
+    public synchronized void recarregar() {
+        Curso[] cursos = cursoRepository.findAllByOrderByNomeAsc().stream()
+                .map(c -> new Curso(c.getId(), c.getNome()))
+                .toArray(Curso[]::new);
+        Disciplina[] disciplinas = disciplinaRepository.findAllByOrderByNomeAsc().stream()
+                .map(d -> new Disciplina(d.getId(), d.getNome()))
+                .toArray(Disciplina[]::new);
+
+        retrato = new Retrato(cursos, disciplinas,
+                Arrays.stream(cursos).collect(Collectors.toUnmodifiableMap(Curso::getId, Function.identity())),
+                Arrays.stream(disciplinas).collect(Collectors.toUnmodifiableMap(Disciplina::getId, Function.identity())),
+                Arrays.stream(cursos).map(c -> new ItemCatalogoDTO(c.getId(), c.getNome())).toList(),
+                Arrays.stream(disciplinas).map(d -> new ItemCatalogoDTO(d.getId(), d.getNome())).toList());
+        indiceNomesService.substituirCatalogo(cursos, disciplinas);
+        ultimaRecarga = System.currentTimeMillis();
+    }
 
-    public List<Disciplina> listarDisciplinas() {
-        return disciplinaRepository.findAllByOrderByNomeAsc();
+    public List<ItemCatalogoDTO> listarDisciplinas() {
+        return retrato.itensDisciplinas();
     }
 
-    public List<Curso> listarCursos() {
-        return cursoRepository.findAllByOrderByNomeAsc();
+    public List<ItemCatalogoDTO> listarCursos() {
+        return retrato.itensCursos();
     }
 
-}
\ No newline at end of file
+    public String nomeCurso(Long id) {
+        Curso curso = retrato.cursoPorId().get(id);
+        return curso == null ? null : curso.getNome();
+    }
+
+    public String nomeDisciplina(Long id) {
+        Disciplina disciplina = retrato.disciplinaPorId().get(id);
+        return disciplina == null ? null : disciplina.getNome();
+    }
+
+    // Referência (proxy) para associar a uma entidade; a existência é conferida no retrato
+    public Curso referenciaCurso(Long id) {
+        if (id == null || !retrato.cursoPorId().containsKey(id)
+                && !(recarregarSeAntigo() && retrato.cursoPorId().containsKey(id))) {
+            throw new OpenApiResourceNotFoundException("Curso não encontrado");
+        }
+        return entityManager.getReference(Curso.class, id);
+    }
+
+    public Disciplina referenciaDisciplina(Long id) {
+        if (id == null || !retrato.disciplinaPorId().containsKey(id)
+                && !(recarregarSeAntigo() && retrato.disciplinaPorId().containsKey(id))) {
+            throw new OpenApiResourceNotFoundException("Disciplina não encontrada");
+        }
+        return entityManager.getReference(Disciplina.class, id);
+    }
+
+    private boolean recarregarSeAntigo() {
+        if (System.currentTimeMillis() - ultimaRecarga < INTERVALO_MINIMO_RECARGA_MS) {
+            return false;
+        }
+        recarregar();
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Notificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusNotificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.NotificacaoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Esvazia a caixa de saída em segundo plano: lotes limitados, taxa máxima de mensagens por segundo
+ * e novas tentativas com backoff exponencial. O lote é reservado numa transação curta (FOR UPDATE SKIP LOCKED,
+ * adiando a próxima tentativa pelo prazo da reserva e gravando um token da reserva), então cada notificação é
+ * enviada por uma única instância. Depois de cada mensagem aceita pelo servidor SMTP, o progresso é gravado numa
+ * transação curta que confere o token e renova a reserva: se a instância cair, a reserva vence e outra retoma a
+ * partir do último bloco registrado; se a reserva já foi tomada por outra, esta para. O despachante roda numa
+ * thread própria: a espera imposta pela taxa de envio não ocupa a thread compartilhada dos demais
+ * {@code @Scheduled}.
+ */
+@Component
+public class DespachanteNotificacoes {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachanteNotificacoes.class);
+    private static final Duration BACKOFF_MAXIMO = Duration.ofHours(1);
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService agendador;
+
+    @Value("${app.notificacao.intervalo-ms:5000}")
+    private long intervaloMs;
+    @Value("${app.notificacao.remetente:no-reply@bioconnect.local}")
+    private String remetente;
+    @Value("${app.notificacao.lote:50}")
+    private int tamanhoLote;
+    @Value("${app.notificacao.destinatarios-por-mensagem:50}")
+    private int destinatariosPorMensagem;
+    @Value("${app.notificacao.mensagens-por-segundo:5}")
+    private int mensagensPorSegundo;
+    @Value("${app.notificacao.max-tentativas:6}")
+    private int maxTentativas;
+    @Value("${app.notificacao.backoff-inicial-segundos:30}")
+    private long backoffInicialSegundos;
+    // Deve cobrir o envio do lote inteiro na taxa configurada
+    @Value("${app.notificacao.reserva-segundos:300}")
+    private long reservaSegundos;
+
+    private long ultimoEnvioNanos;
+
+    public DespachanteNotificacoes(NotificacaoRepository notificacaoRepository, JavaMailSender mailSender,
+                                   PlatformTransactionManager transactionManager) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "despachante-notificacoes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        agendador.scheduleWithFixedDelay(this::executar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    // Uma exceção não tratada cancelaria as próximas execuções do agendador
+    private void executar() {
+        try {
+            despachar();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao despachar notificações", e);
+        }
+    }
+
+    void despachar() {
+        for (Notificacao notificacao : reservarLote()) {
+            processar(notificacao);
+        }
+    }
+
+    private List<Notificacao> reservarLote() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            String reserva = UUID.randomUUID().toString();
+            List<Notificacao> lote = notificacaoRepository.buscarParaReservar(agora, tamanhoLote);
+            lote.forEach(notificacao -> {
+                notificacao.setProximaTentativa(agora.plusSeconds(reservaSegundos));
+                notificacao.setReserva(reserva);
+            });
+            return lote;
+        });
+    }
+
+    // As notificações do lote chegam desligadas do contexto de persistência: toda gravação passa por atualizar()
+    private void processar(Notificacao notificacao) {
+        String[] destinatarios = notificacao.getDestinatarios().split(",");
+        int enviados = notificacao.getDestinatariosEnviados();
+        try {
+            while (enviados < destinatarios.length) {
+                int fim = Math.min(destinatarios.length, enviados + destinatariosPorMensagem);
+                String[] parte = new String[fim - enviados];
+                System.arraycopy(destinatarios, enviados, parte, 0, parte.length);
+
+                aguardarTaxa();
+                enviar(notificacao, parte);
+                enviados = fim;
+
+                int progresso = enviados;
+                if (!atualizar(notificacao, atual -> {
+                    atual.setDestinatariosEnviados(progresso);
+                    atual.setProximaTentativa(LocalDateTime.now().plusSeconds(reservaSegundos));
+                })) {
+                    return;
+                }
+            }
+            atualizar(notificacao, atual -> {
+                atual.setStatus(StatusNotificacao.ENVIADA);
+                atual.setEnviadoEm(LocalDateTime.now());
+            });
+        } catch (MailException e) {
+            atualizar(notificacao, atual -> registrarFalha(atual, e));
+        }
+    }
+
+    // Aplica a alteração só se a reserva ainda é desta instância; false = reserva perdida, o envio para aqui
+    private boolean atualizar(Notificacao notificacao, Consumer<Notificacao> alteracao) {
+        Boolean reservada = transactionTemplate.execute(status -> notificacaoRepository
+                .buscarReservada(notificacao.getId(), notificacao.getReserva())
+                .map(atual -> {
+                    alteracao.accept(atual);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(reservada)) {
+            log.warn("Reserva da notificação {} perdida; outra instância continua o envio", notificacao.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void enviar(Notificacao notificacao, String[] destinatarios) {
+        SimpleMailMessage mensagem = new SimpleMailMessage();
+        mensagem.setFrom(remetente);
+        mensagem.setTo(remetente);
+        mensagem.setBcc(destinatarios);
+        mensagem.setSubject(notificacao.getAssunto());
+        mensagem.setText(notificacao.getCorpo());
+        mailSender.send(mensagem);
+    }
+
+    private void registrarFalha(Notificacao notificacao, MailException e) {
+        int tentativas = notificacao.getTentativas() + 1;
+        notificacao.setTentativas(tentativas);
+        String erro = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        notificacao.setUltimoErro(erro.length() > 1000 ? erro.substring(0, 1000) : erro);
+
+        if (tentativas >= maxTentativas) {
+            notificacao.setStatus(StatusNotificacao.FALHA);
+            log.warn("Notificação {} descartada após {} tentativas: {}", notificacao.getId(), tentativas, erro);
+            return;
+        }
+
+        Duration espera = Duration.ofSeconds(backoffInicialSegundos << Math.min(tentativas - 1, 20));
+        if (espera.compareTo(BACKOFF_MAXIMO) > 0) espera = BACKOFF_MAXIMO;
+        notificacao.setProximaTentativa(LocalDateTime.now().plus(espera));
+    }
+
+    private void aguardarTaxa() {
+        long intervaloNanos = 1_000_000_000L / Math.max(1, mensagensPorSegundo);
+        long espera = ultimoEnvioNanos + intervaloNanos - System.nanoTime();
+        if (espera > 0) {
+            try {
+                Thread.sleep(espera / 1_000_000, (int) (espera % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ultimoEnvioNanos = System.nanoTime();
+    }
+}
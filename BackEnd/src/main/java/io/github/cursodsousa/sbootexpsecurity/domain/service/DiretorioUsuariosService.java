@@ -0,0 +1,57 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaUsuariosDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UsuarioResumoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UserRole;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Diretório de usuários da tela de administração: só id, nome, login, e-mail e perfil, em páginas
+ * de login em login. Cada página começa no login seguinte ao último exibido, então custa o mesmo
+ * em qualquer posição da lista, independente do número de usuários.
+ */
+@Service
+public class DiretorioUsuariosService {
+
+    private static final int TAMANHO_MAXIMO = 100;
+
+    private final UsuarioRepository usuarioRepository;
+
+    public DiretorioUsuariosService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaUsuariosDTO listar(String q, UserRole role, String depoisDe, int tamanho) {
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+        String prefixo = q == null || q.isBlank() ? null : escaparLike(q.trim()) + "%";
+        String cursor = depoisDe == null || depoisDe.isEmpty() ? null : depoisDe;
+
+        // Uma linha a mais indica se existe próxima página
+        List<UsuarioResumoDTO> usuarios = prefixo == null
+                ? usuarioRepository.listarDiretorio(role, cursor, PageRequest.of(0, tamanhoPagina + 1))
+                : usuarioRepository.listarDiretorioPorPrefixo(role == null ? null : role.ordinal(), prefixo, cursor,
+                        tamanhoPagina + 1).stream().map(DiretorioUsuariosService::paraResumo).toList();
+        boolean haMais = usuarios.size() > tamanhoPagina;
+        if (haMais) usuarios = usuarios.subList(0, tamanhoPagina);
+
+        return PaginaUsuariosDTO.builder()
+                .usuarios(List.copyOf(usuarios))
+                .proximo(haMais ? usuarios.get(usuarios.size() - 1).getLogin() : null)
+                .build();
+    }
+
+    private static UsuarioResumoDTO paraResumo(Object[] linha) {
+        UserRole role = linha[4] == null ? null : UserRole.values()[((Number) linha[4]).intValue()];
+        return new UsuarioResumoDTO((String) linha[0], (String) linha[1], (String) linha[2], (String) linha[3], role);
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -1,54 +1,471 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.service;
 
 import io.github.cursodsousa.sbootexpsecurity.api.dto.DocumentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaDocumentosDTO;
+import io.github.cursodsousa.sbootexpsecurity.config.ValidacaoException;
+import io.github.cursodsousa.sbootexpsecurity.domain.armazenamento.ArmazenamentoArquivos;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.ConteudoArquivo;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Documento;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Projeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.ConteudoArquivoRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.DocumentoLoteRepository;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.DocumentoRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.DocumentoResumo;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.ProjetoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Documentos com armazenamento endereçado por conteúdo: o arquivo é gravado com o nome igual ao SHA-256
+ * calculado durante o upload, de modo que conteúdos idênticos ocupam o disco uma única vez.
+ * Cada {@link ConteudoArquivo} conta quantos documentos o referenciam; os bytes só são apagados
+ * quando a última referência é removida. Tipos de texto são guardados em gzip ({@code codificacao}).
+ */
 @Service
 public class DocumentoService {
 
+    public static final String CODIFICACAO_GZIP = "gzip";
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentoService.class);
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final double TAXA_MAXIMA_COMPRESSAO = 0.9;
+
     private final DocumentoRepository documentoRepository;
-    private final Path rootLocation = Paths.get("uploads");
+    private final DocumentoLoteRepository documentoLoteRepository;
+    private final ConteudoArquivoRepository conteudoArquivoRepository;
+    private final ProjetoRepository projetoRepository;
+    private final ArmazenamentoArquivos armazenamento;
+    private final GeradorMiniaturas geradorMiniaturas;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executorUploads;
 
-    public DocumentoService(DocumentoRepository documentoRepository) {
+    @Value("${app.upload.compressao.ativa:true}")
+    private boolean compressaoAtiva;
+    @Value("${app.upload.compressao.tipos:text/,application/json,application/xml,application/rtf,image/svg+xml,image/bmp,image/tiff}")
+    private List<String> tiposComprimiveis;
+
+    public DocumentoService(DocumentoRepository documentoRepository,
+                            DocumentoLoteRepository documentoLoteRepository,
+                            ConteudoArquivoRepository conteudoArquivoRepository,
+                            ProjetoRepository projetoRepository,
+                            ArmazenamentoArquivos armazenamento,
+                            GeradorMiniaturas geradorMiniaturas,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.upload.paralelismo:4}") int paralelismo) {
         this.documentoRepository = documentoRepository;
+        this.documentoLoteRepository = documentoLoteRepository;
+        this.conteudoArquivoRepository = conteudoArquivoRepository;
+        this.projetoRepository = projetoRepository;
+        this.armazenamento = armazenamento;
+        this.geradorMiniaturas = geradorMiniaturas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger contador = new AtomicInteger();
+        this.executorUploads = Executors.newFixedThreadPool(paralelismo, tarefa -> {
+            Thread thread = new Thread(tarefa, "uploads-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public DocumentoDTO salvarDocumento(MultipartFile arquivo) {
         try {
-            Files.createDirectories(rootLocation);
+            ConteudoPreparado conteudo = prepararConteudo(arquivo, arquivo.getContentType(), null, null);
+            return converterParaDTO(armazenarERegistrar(conteudo, arquivo.getOriginalFilename(), arquivo.getContentType()));
         } catch (IOException e) {
-            throw new RuntimeException("Não foi possível criar o diretório de uploads", e);
+            throw new RuntimeException("Falha ao armazenar arquivo", e);
         }
     }
 
-    @Transactional
-    public DocumentoDTO salvarDocumento(MultipartFile arquivo) {
+    /**
+     * Registra um arquivo já montado em disco (ex.: upload em partes). Com o SHA-256 já conhecido, o arquivo só é
+     * lido se for comprimido; sem ele, é lido uma vez para o hash.
+     */
+    public DocumentoDTO registrarArquivo(Path arquivoMontado, String nomeOriginal, String tipoArquivo, String hash) {
         try {
-            String nomeOriginal = arquivo.getOriginalFilename();
-            String extensao = nomeOriginal.substring(nomeOriginal.lastIndexOf("."));
-            String nomeArquivo = UUID.randomUUID() + extensao;
+            ConteudoPreparado conteudo = prepararConteudo(new FileSystemResource(arquivoMontado), tipoArquivo,
+                    arquivoMontado, hash);
+            return converterParaDTO(armazenarERegistrar(conteudo, nomeOriginal, tipoArquivo));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao armazenar arquivo", e);
+        }
+    }
 
-            Files.copy(arquivo.getInputStream(), this.rootLocation.resolve(nomeArquivo));
+    /**
+     * Anexa vários arquivos a um projeto numa única requisição. Os arquivos são lidos, comprimidos e enviados ao
+     * armazenamento em paralelo, fora de transação; depois uma transação curta registra as referências de
+     * conteúdo e insere todos os documentos em um batch JDBC.
+     */
+    public List<DocumentoDTO> anexarDocumentos(Long projetoId, List<MultipartFile> arquivos) {
+        if (arquivos == null || arquivos.isEmpty()) {
+            throw new ValidacaoException("Envie ao menos um arquivo");
+        }
+        if (!projetoRepository.existsById(projetoId)) {
+            throw new ValidacaoException("Projeto não encontrado");
+        }
 
-            Documento documento = new Documento();
-            documento.setNomeArquivo(nomeOriginal);
-            documento.setTipoArquivo(arquivo.getContentType());
-            documento.setTamanho(arquivo.getSize());
-            documento.setCaminhoArquivo(nomeArquivo);
+        List<ConteudoEnviado> enviados = enviarEmParalelo(arquivos);
+        List<Documento> documentos = transactionTemplate.execute(status ->
+                registrarLote(projetoId, arquivos, enviados));
+        return documentos.stream().map(this::converterParaDTO).collect(Collectors.toList());
+    }
 
-            Documento salvo = documentoRepository.save(documento);
-            return converterParaDTO(salvo);
-        } catch (IOException e) {
-            throw new RuntimeException("Falha ao armazenar arquivo", e);
+    private List<ConteudoEnviado> enviarEmParalelo(List<MultipartFile> arquivos) {
+        List<Future<ConteudoEnviado>> tarefas = new ArrayList<>();
+        for (MultipartFile arquivo : arquivos) {
+            tarefas.add(executorUploads.submit(() -> {
+                ConteudoPreparado preparado = prepararConteudo(arquivo, arquivo.getContentType(), null, null);
+                try {
+                    return new ConteudoEnviado(preparado, enviarAoArmazenamento(preparado));
+                } finally {
+                    Files.deleteIfExists(preparado.arquivo());
+                }
+            }));
+        }
+
+        List<ConteudoEnviado> enviados = new ArrayList<>();
+        Exception falha = null;
+        for (Future<ConteudoEnviado> tarefa : tarefas) {
+            try {
+                enviados.add(tarefa.get());
+            } catch (ExecutionException e) {
+                falha = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                falha = e;
+            }
+        }
+        if (falha != null) {
+            // Bytes já enviados ficam sem documento e são removidos pela limpeza de órfãos após a carência
+            throw new RuntimeException("Falha ao armazenar arquivo", falha);
+        }
+        return enviados;
+    }
+
+    private List<Documento> registrarLote(Long projetoId, List<MultipartFile> arquivos,
+                                          List<ConteudoEnviado> enviados) {
+        documentoLoteRepository.adicionarReferencias(enviados.stream()
+                .map(ConteudoEnviado::preparado)
+                .map(p -> new DocumentoLoteRepository.ReferenciaConteudo(p.hash(), p.tamanho(), p.codificacao()))
+                .toList());
+
+        Set<String> hashes = enviados.stream().map(e -> e.preparado().hash()).collect(Collectors.toSet());
+        hashes.forEach(this::confirmarArmazenado);
+        Map<String, String> codificacoes = new HashMap<>();
+        for (Object[] linha : conteudoArquivoRepository.buscarCodificacoes(hashes)) {
+            codificacoes.put((String) linha[0], (String) linha[1]);
+        }
+
+        Projeto projeto = projetoRepository.getReferenceById(projetoId);
+        List<Documento> documentos = new ArrayList<>();
+        for (int i = 0; i < enviados.size(); i++) {
+            ConteudoPreparado preparado = enviados.get(i).preparado();
+            MultipartFile arquivo = arquivos.get(i);
+            String hash = preparado.hash();
+
+            // Quem enviou os bytes define a codificação registrada
+            if (enviados.get(i).gravado() && !Objects.equals(codificacoes.get(hash), preparado.codificacao())) {
+                conteudoArquivoRepository.atualizarCodificacao(hash, preparado.codificacao());
+                codificacoes.put(hash, preparado.codificacao());
+            }
+
+            documentos.add(Documento.builder()
+                    .nomeArquivo(arquivo.getOriginalFilename())
+                    .tipoArquivo(arquivo.getContentType())
+                    .tamanho(preparado.tamanho())
+                    .caminhoArquivo(hash)
+                    .hashConteudo(hash)
+                    .codificacao(codificacoes.get(hash))
+                    .projeto(projeto)
+                    .build());
+        }
+
+        documentoLoteRepository.inserirDocumentos(documentos);
+        for (Documento documento : documentos) {
+            geradorMiniaturas.agendarAposCommit(documento.getCaminhoArquivo(), documento.getTipoArquivo(),
+                    documento.getCodificacao());
+        }
+        return documentos;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDocumentosDTO listarDocumentosDoProjeto(Long projetoId, int pagina, int tamanho) {
+        if (!projetoRepository.existsById(projetoId)) {
+            throw new ValidacaoException("Projeto não encontrado");
+        }
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, 100));
+        Page<DocumentoResumo> resumos = documentoRepository.listarResumosPorProjeto(
+                projetoId, PageRequest.of(Math.max(0, pagina), tamanhoPagina));
+
+        return PaginaDocumentosDTO.builder()
+                .total(resumos.getTotalElements())
+                .pagina(resumos.getNumber())
+                .tamanho(tamanhoPagina)
+                .documentos(resumos.getContent().stream()
+                        .map(r -> DocumentoDTO.builder()
+                                .id(r.getId())
+                                .nomeArquivo(r.getNomeArquivo())
+                                .tipoArquivo(r.getTipoArquivo())
+                                .tamanho(r.getTamanho())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorUploads.shutdown();
+    }
+
+    private record ConteudoPreparado(Path arquivo, String hash, long tamanho, String codificacao) {
+    }
+
+    // gravado = os bytes foram enviados por esta requisição (e não reaproveitados de um conteúdo já armazenado)
+    private record ConteudoEnviado(ConteudoPreparado preparado, boolean gravado) {
+    }
+
+    /**
+     * Lê a origem uma única vez calculando o SHA-256 dos bytes originais; tipos comprimíveis são gravados
+     * em gzip durante essa mesma leitura. Se a compressão não economizar pelo menos 10%, os bytes originais
+     * são guardados. {@code arquivoPronto} é a própria origem já em disco, usada sem cópia quando não há
+     * compressão; com {@code hashConhecido} ela não é lida para o hash.
+     */
+    private ConteudoPreparado prepararConteudo(InputStreamSource origem, String tipoArquivo, Path arquivoPronto,
+                                               String hashConhecido) throws IOException {
+        if (compressaoAtiva && comprimivel(tipoArquivo)) {
+            MessageDigest sha256 = hashConhecido == null ? sha256() : null;
+            Path comprimido = Files.createTempFile(armazenamento.diretorioTemporario(), "upload-", ".gz");
+            long tamanho;
+            InputStream leitura = origem.getInputStream();
+            try (InputStream entrada = sha256 != null ? new DigestInputStream(leitura, sha256) : leitura;
+                 OutputStream saida = new GZIPOutputStream(
+                         new BufferedOutputStream(Files.newOutputStream(comprimido), TAMANHO_BUFFER), TAMANHO_BUFFER)) {
+                tamanho = entrada.transferTo(saida);
+            }
+            String hash = sha256 != null ? HexFormat.of().formatHex(sha256.digest()) : hashConhecido;
+
+            if (Files.size(comprimido) <= tamanho * TAXA_MAXIMA_COMPRESSAO) {
+                if (arquivoPronto != null) Files.delete(arquivoPronto);
+                return new ConteudoPreparado(comprimido, hash, tamanho, CODIFICACAO_GZIP);
+            }
+            Files.delete(comprimido);
+            Path original = arquivoPronto != null ? arquivoPronto : copiarParaTemporario(origem, null);
+            return new ConteudoPreparado(original, hash, tamanho, null);
+        }
+
+        if (arquivoPronto != null && hashConhecido != null) {
+            return new ConteudoPreparado(arquivoPronto, hashConhecido, Files.size(arquivoPronto), null);
+        }
+        MessageDigest sha256 = sha256();
+        Path original;
+        if (arquivoPronto != null) {
+            try (InputStream entrada = new DigestInputStream(Files.newInputStream(arquivoPronto), sha256)) {
+                entrada.transferTo(OutputStream.nullOutputStream());
+            }
+            original = arquivoPronto;
+        } else {
+            original = copiarParaTemporario(origem, sha256);
+        }
+        return new ConteudoPreparado(original, HexFormat.of().formatHex(sha256.digest()), Files.size(original), null);
+    }
+
+    private Path copiarParaTemporario(InputStreamSource origem, MessageDigest digest) throws IOException {
+        Path temporario = Files.createTempFile(armazenamento.diretorioTemporario(), "upload-", ".tmp");
+        InputStream entrada = origem.getInputStream();
+        try (InputStream leitura = digest != null ? new DigestInputStream(entrada, digest) : entrada) {
+            Files.copy(leitura, temporario, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return temporario;
+    }
+
+    private boolean comprimivel(String tipoArquivo) {
+        if (tipoArquivo == null) return false;
+        String tipo = tipoArquivo.toLowerCase(Locale.ROOT);
+        return tiposComprimiveis.stream().anyMatch(tipo::startsWith);
+    }
+
+    /**
+     * O envio ao armazenamento (no S3, um PUT de até 2 GB) acontece antes e fora da transação, que só registra
+     * a referência e o documento. Bytes enviados cujo registro falhou ficam sem documento e são removidos
+     * pela limpeza de órfãos após a carência.
+     */
+    private Documento armazenarERegistrar(ConteudoPreparado preparado, String nomeOriginal, String tipoArquivo)
+            throws IOException {
+        boolean gravado = enviarAoArmazenamento(preparado);
+        return transactionTemplate.execute(status ->
+                registrarDocumento(preparado, gravado, nomeOriginal, tipoArquivo));
+    }
+
+    // Conteúdo já armazenado não é reenviado: o temporário é descartado
+    private boolean enviarAoArmazenamento(ConteudoPreparado preparado) throws IOException {
+        if (armazenamento.existe(preparado.hash())) {
+            Files.deleteIfExists(preparado.arquivo());
+            return false;
+        }
+        armazenamento.gravar(preparado.hash(), preparado.arquivo());
+        return true;
+    }
+
+    /**
+     * Com a linha do conteúdo travada, confere que os bytes continuam no armazenamento: entre o envio e o lock,
+     * a remoção do último documento com o mesmo conteúdo pode tê-los apagado. Depois do lock, uma remoção
+     * concorrente espera este commit e encontra o documento novo.
+     */
+    private void confirmarArmazenado(String hash) {
+        if (!armazenamento.existe(hash)) {
+            throw new ValidacaoException("O arquivo foi removido do armazenamento durante o envio; envie novamente");
+        }
+    }
+
+    private Documento registrarDocumento(ConteudoPreparado preparado, boolean gravado, String nomeOriginal,
+                                         String tipoArquivo) {
+        String hash = preparado.hash();
+        // O upsert trava a linha do conteúdo até o commit
+        conteudoArquivoRepository.adicionarReferencia(hash, preparado.tamanho(), preparado.codificacao());
+        confirmarArmazenado(hash);
+
+        // Conteúdo já armazenado mantém a codificação com que foi gravado da primeira vez
+        String codificacao;
+        if (gravado) {
+            conteudoArquivoRepository.atualizarCodificacao(hash, preparado.codificacao());
+            codificacao = preparado.codificacao();
+        } else {
+            codificacao = conteudoArquivoRepository.buscarCodificacao(hash);
+        }
+
+        Documento documento = new Documento();
+        documento.setNomeArquivo(nomeOriginal);
+        documento.setTipoArquivo(tipoArquivo);
+        documento.setTamanho(preparado.tamanho());
+        documento.setCaminhoArquivo(hash);
+        documento.setHashConteudo(hash);
+        documento.setCodificacao(codificacao);
+        Documento salvo = documentoRepository.save(documento);
+        geradorMiniaturas.agendarAposCommit(hash, tipoArquivo, codificacao);
+        return salvo;
+    }
+
+    /**
+     * Remove uma referência. Os bytes só são apagados depois do commit: se a transação for desfeita, o documento
+     * volta com o arquivo intacto. Falhas nessa etapa deixam um órfão para a limpeza periódica.
+     */
+    private void liberarConteudo(Documento documento) {
+        String hash = documento.getHashConteudo();
+        if (hash == null) {
+            // Documento antigo, com arquivo exclusivo
+            String chave = documento.getCaminhoArquivo();
+            executarAposCommit(() -> {
+                armazenamento.remover(chave);
+                geradorMiniaturas.remover(chave);
+            });
+            return;
+        }
+
+        ConteudoArquivo conteudo = conteudoArquivoRepository.buscarParaAtualizar(hash).orElse(null);
+        if (conteudo == null) return;
+
+        conteudo.setReferencias(conteudo.getReferencias() - 1);
+        if (conteudo.getReferencias() <= 0) {
+            long tamanho = conteudo.getTamanho();
+            executarAposCommit(() -> removerConteudoSemUso(hash, tamanho));
+        }
+    }
+
+    /**
+     * Apaga um conteúdo deduplicado que nenhum documento usa, numa transação própria. A linha em conteudo_arquivo
+     * é travada e os documentos são contados antes de apagar os bytes, ainda sob o lock: um upload simultâneo do
+     * mesmo conteúdo espera o commit e, ao conferir o armazenamento, envia o arquivo de novo. Se esta transação
+     * for desfeita, volta apenas a linha de um conteúdo sem documentos.
+     */
+    public boolean removerConteudoSemUso(String hash, long tamanho) {
+        Boolean removido = transactionTemplate.execute(status -> {
+            conteudoArquivoRepository.garantirRegistro(hash, tamanho);
+            ConteudoArquivo conteudo = conteudoArquivoRepository.buscarParaAtualizar(hash).orElseThrow();
+            if (documentoRepository.countByHashConteudo(hash) > 0) {
+                return false;
+            }
+
+            conteudoArquivoRepository.delete(conteudo);
+            conteudoArquivoRepository.flush();
+            try {
+                boolean apagado = armazenamento.remover(hash);
+                geradorMiniaturas.remover(hash);
+                return apagado;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Boolean.TRUE.equals(removido);
+    }
+
+    private void executarAposCommit(RemocaoArquivo remocao) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    remocao.executar();
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Falha ao remover arquivo de documento apagado; fica para a limpeza de órfãos", e);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RemocaoArquivo {
+        void executar() throws IOException;
+    }
+
+    public Path getDiretorioTemporario() {
+        return armazenamento.diretorioTemporario();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
@@ -69,6 +486,88 @@ public class DocumentoService {
                 .collect(Collectors.toList());
     }
 
+    // chave = chave do conteúdo no armazenamento (o hash) e modificadoEm = gravação do conteúdo, iguais em todos
+    // os nós (nulo em documentos antigos); codificacao = "gzip" quando os bytes em disco estão comprimidos;
+    // tamanho é o do conteúdo original
+    public record ArquivoDocumento(Path caminho, String chave, String nomeArquivo, String tipoArquivo,
+                                   String codificacao, long tamanho, Instant modificadoEm) {
+    }
+
+    public enum SituacaoMiniatura { PRONTA, GERANDO, FALHOU }
+
+    // caminho preenchido só quando PRONTA
+    public record Miniatura(SituacaoMiniatura situacao, Path caminho, String chave, Instant modificadoEm) {
+    }
+
+    @Transactional(readOnly = true)
+    public ArquivoDocumento abrirArquivo(Long id) {
+        Documento doc = documentoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Documento não encontrado"));
+
+        try {
+            return paraArquivo(doc);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Arquivo do documento não encontrado no armazenamento", e);
+        }
+    }
+
+    // Miniatura pronta; se ainda não existe, GERANDO (a geração é agendada sem esperar); FALHOU se a imagem é inválida
+    @Transactional(readOnly = true)
+    public Miniatura buscarMiniatura(Long id) {
+        Documento doc = documentoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Documento não encontrado"));
+        if (!geradorMiniaturas.suportado(doc.getTipoArquivo())) {
+            throw new ValidacaoException("Tipo de arquivo sem miniatura: " + doc.getTipoArquivo());
+        }
+
+        String chave = doc.getCaminhoArquivo();
+        Path miniatura = geradorMiniaturas.localizar(chave);
+        if (miniatura != null) {
+            return new Miniatura(SituacaoMiniatura.PRONTA, miniatura, chave, modificadoEm(doc));
+        }
+        if (geradorMiniaturas.falhou(chave)) {
+            return new Miniatura(SituacaoMiniatura.FALHOU, null, chave, null);
+        }
+        geradorMiniaturas.agendar(chave, doc.getCodificacao());
+        return new Miniatura(SituacaoMiniatura.GERANDO, null, chave, null);
+    }
+
+    // Só os metadados: o caminho local é resolvido ao escrever cada entrada do pacote
+    public record ItemPacote(String chave, String nomeArquivo, String tipoArquivo, String codificacao) {
+    }
+
+    // Documentos do projeto na ordem em que foram anexados
+    @Transactional(readOnly = true)
+    public List<ItemPacote> listarArquivosDoProjeto(Long projetoId) {
+        if (!projetoRepository.existsById(projetoId)) {
+            throw new ValidacaoException("Projeto não encontrado");
+        }
+
+        return documentoRepository.findByProjetoIdOrderByIdAsc(projetoId).stream()
+                .map(doc -> new ItemPacote(doc.getCaminhoArquivo(), doc.getNomeArquivo(), doc.getTipoArquivo(),
+                        doc.getCodificacao()))
+                .toList();
+    }
+
+    // Caminho local do conteúdo; no S3 o arquivo é baixado para o cache neste momento
+    public Path localizarConteudo(String chave) throws IOException {
+        return armazenamento.caminhoLocal(chave);
+    }
+
+    private ArquivoDocumento paraArquivo(Documento doc) throws IOException {
+        Path caminho = armazenamento.caminhoLocal(doc.getCaminhoArquivo());
+        return new ArquivoDocumento(caminho, doc.getCaminhoArquivo(), doc.getNomeArquivo(), doc.getTipoArquivo(),
+                doc.getCodificacao(), doc.getTamanho() != null ? doc.getTamanho() : -1, modificadoEm(doc));
+    }
+
+    // A data do arquivo local não serve: é a da cópia de cache, diferente em cada nó
+    private Instant modificadoEm(Documento doc) {
+        if (doc.getHashConteudo() == null) return null;
+        return conteudoArquivoRepository.buscarCriadoEm(doc.getHashConteudo())
+                .map(criadoEm -> criadoEm.atZone(ZoneId.systemDefault()).toInstant())
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public DocumentoDTO buscarPorId(Long id) {
         Documento doc = documentoRepository.findById(id)
@@ -81,6 +580,7 @@ public class DocumentoService {
         Documento doc = documentoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Documento não encontrado"));
         documentoRepository.delete(doc);
+        liberarConteudo(doc);
     }
 
     @Transactional
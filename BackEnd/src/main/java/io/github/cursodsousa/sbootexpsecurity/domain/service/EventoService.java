@@ -9,6 +9,7 @@ import io.github.cursodsousa.sbootexpsecurity.domain.repository.ParticipanteRepo
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusEvento;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,6 +22,8 @@ public class EventoService {
     private EventoRepository eventoRepository;
     @Autowired
     private ParticipanteRepository participanteRepository;
+    @Autowired
+    private NotificacaoService notificacaoService;
 
 
     public List<Evento> listarEventos(){
@@ -55,20 +58,26 @@ public class EventoService {
         return eventoRepository.save(evento); // Persiste o evento e seus participantes
     }
 
+    @Transactional
     public Evento aprovarEvento(Long id) {
         Evento evento = eventoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Evento não encontrado"));
 
         evento.setStatus(StatusEvento.APROVADO);
-        return eventoRepository.save(evento);
+        Evento atualizado = eventoRepository.save(evento);
+        notificacaoService.notificarEvento(atualizado, "aprovado");
+        return atualizado;
     }
 
+    @Transactional
     public Evento rejeitarEvento(Long id) {
         Evento evento = eventoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Evento não encontrado"));
 
         evento.setStatus(StatusEvento.REJEITADO);
-        return eventoRepository.save(evento);
+        Evento atualizado = eventoRepository.save(evento);
+        notificacaoService.notificarEvento(atualizado, "rejeitado");
+        return atualizado;
     }
 
     public void deletarEvento(Long id){
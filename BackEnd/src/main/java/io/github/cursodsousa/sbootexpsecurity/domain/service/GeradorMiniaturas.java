@@ -0,0 +1,257 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.armazenamento.ArmazenamentoArquivos;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Gera miniaturas PNG de imagens em segundo plano, depois do commit do upload.
+ * A fila é limitada: quando cheia, o pedido é descartado (o upload nunca espera) e a miniatura é
+ * reagendada na primeira vez que for solicitada. Falhas de leitura do armazenamento são tentadas de novo com
+ * espera crescente; uma imagem que não decodifica é marcada com um arquivo .falha ao lado da miniatura e não é
+ * mais agendada. Imagens grandes são lidas com subamostragem, sem decodificar a resolução inteira.
+ */
+@Component
+public class GeradorMiniaturas {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorMiniaturas.class);
+
+    private final ArmazenamentoArquivos armazenamento;
+    private final Path diretorio;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService novasTentativas;
+    private final Set<String> pendentes = ConcurrentHashMap.newKeySet();
+    private final Set<String> tiposSuportados;
+
+    @Value("${app.miniaturas.tamanho:256}")
+    private int tamanhoMaximo;
+    @Value("${app.miniaturas.max-tentativas:3}")
+    private int maxTentativas;
+
+    public GeradorMiniaturas(ArmazenamentoArquivos armazenamento,
+                             @Value("${app.miniaturas.diretorio:${app.upload-dir:uploads}/.miniaturas}") String diretorio,
+                             @Value("${app.miniaturas.threads:2}") int threads,
+                             @Value("${app.miniaturas.fila:100}") int capacidadeFila) {
+        this.armazenamento = armazenamento;
+        this.diretorio = Paths.get(diretorio);
+        try {
+            Files.createDirectories(this.diretorio);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível criar o diretório de miniaturas", e);
+        }
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), tarefa -> {
+            Thread thread = new Thread(tarefa, "miniaturas-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.novasTentativas = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "miniaturas-novas-tentativas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tiposSuportados = Set.of(ImageIO.getReaderMIMETypes());
+    }
+
+    public boolean suportado(String tipoArquivo) {
+        return tipoArquivo != null && tiposSuportados.contains(tipoArquivo.toLowerCase(Locale.ROOT));
+    }
+
+    // Miniatura já gerada para a chave do arquivo, ou null
+    public Path localizar(String chave) {
+        Path miniatura = caminho(chave);
+        return Files.isRegularFile(miniatura) ? miniatura : null;
+    }
+
+    // A imagem não pôde ser decodificada: não adianta pedir a miniatura de novo
+    public boolean falhou(String chave) {
+        return Files.exists(caminhoFalha(chave));
+    }
+
+    public void agendarAposCommit(String chave, String tipoArquivo, String codificacao) {
+        if (!suportado(tipoArquivo)) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agendar(chave, codificacao);
+                }
+            });
+        } else {
+            agendar(chave, codificacao);
+        }
+    }
+
+    public void agendar(String chave, String codificacao) {
+        enfileirar(chave, codificacao, 1);
+    }
+
+    public void remover(String chave) throws IOException {
+        Files.deleteIfExists(caminho(chave));
+        Files.deleteIfExists(caminhoFalha(chave));
+    }
+
+    private void enfileirar(String chave, String codificacao, int tentativa) {
+        // Um pedido por chave por vez; novas tentativas já estão marcadas como pendentes
+        if (tentativa == 1 && (localizar(chave) != null || falhou(chave) || !pendentes.add(chave))) {
+            return;
+        }
+        try {
+            executor.execute(() -> processar(chave, codificacao, tentativa));
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: a miniatura será pedida de novo quando alguém a solicitar
+            pendentes.remove(chave);
+        }
+    }
+
+    private void processar(String chave, String codificacao, int tentativa) {
+        try {
+            gerar(chave, codificacao);
+            pendentes.remove(chave);
+        } catch (ImagemInvalidaException e) {
+            // Decodificar de novo daria o mesmo resultado
+            registrarFalha(chave, e);
+            pendentes.remove(chave);
+        } catch (Exception e) {
+            if (tentativa >= maxTentativas) {
+                pendentes.remove(chave);
+                log.warn("Não foi possível gerar a miniatura de {}", chave, e);
+                return;
+            }
+            long espera = 1L << tentativa;
+            novasTentativas.schedule(() -> enfileirar(chave, codificacao, tentativa + 1), espera, TimeUnit.SECONDS);
+        }
+    }
+
+    private void registrarFalha(String chave, ImagemInvalidaException e) {
+        log.warn("Imagem {} não pôde ser decodificada; miniatura não será gerada", chave, e);
+        try {
+            String motivo = e.getCause() != null ? String.valueOf(e.getCause()) : e.getMessage();
+            Files.writeString(caminhoFalha(chave), motivo);
+        } catch (IOException erro) {
+            log.warn("Falha ao registrar a miniatura inválida de {}", chave, erro);
+        }
+    }
+
+    private void gerar(String chave, String codificacao) throws IOException {
+        BufferedImage imagem;
+        InputStream entrada = abrir(chave, codificacao);
+        // Erros daqui em diante vêm do conteúdo da imagem, não do armazenamento
+        try (entrada) {
+            imagem = lerReduzida(entrada);
+        } catch (IOException | RuntimeException e) {
+            throw new ImagemInvalidaException("Imagem corrompida ou não suportada", e);
+        }
+        if (imagem == null) {
+            throw new ImagemInvalidaException("Formato de imagem não reconhecido", null);
+        }
+
+        double escala = Math.min(1.0, (double) tamanhoMaximo / Math.max(imagem.getWidth(), imagem.getHeight()));
+        int largura = Math.max(1, (int) Math.round(imagem.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(imagem.getHeight() * escala));
+
+        BufferedImage miniatura = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D grafico = miniatura.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.drawImage(imagem, 0, 0, largura, altura, null);
+        } finally {
+            grafico.dispose();
+        }
+
+        Path temporario = Files.createTempFile(diretorio, "miniatura-", ".tmp");
+        try {
+            ImageIO.write(miniatura, "png", temporario.toFile());
+            Files.move(temporario, caminho(chave), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    // Subamostragem na leitura: só cerca de 2x o tamanho final é decodificado
+    private BufferedImage lerReduzida(InputStream entrada) throws IOException {
+        try (ImageInputStream imagem = ImageIO.createImageInputStream(entrada)) {
+            if (imagem == null) return null;
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(imagem);
+            if (!leitores.hasNext()) return null;
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(imagem, true, true);
+                int maiorLado = Math.max(leitor.getWidth(0), leitor.getHeight(0));
+                int passo = Math.max(1, maiorLado / (tamanhoMaximo * 2));
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                parametros.setSourceSubsampling(passo, passo, 0, 0);
+                return leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private InputStream abrir(String chave, String codificacao) throws IOException {
+        InputStream entrada = armazenamento.abrir(chave);
+        return DocumentoService.CODIFICACAO_GZIP.equals(codificacao) ? new GZIPInputStream(entrada) : entrada;
+    }
+
+    private Path caminho(String chave) {
+        return resolver(chave + ".png");
+    }
+
+    private Path caminhoFalha(String chave) {
+        return resolver(chave + ".falha");
+    }
+
+    private Path resolver(String nome) {
+        Path arquivo = diretorio.resolve(nome).normalize();
+        if (!arquivo.startsWith(diretorio.normalize())) {
+            throw new IllegalArgumentException("Chave de arquivo inválida");
+        }
+        return arquivo;
+    }
+
+    private static final class ImagemInvalidaException extends IOException {
+        ImagemInvalidaException(String mensagem, Throwable causa) {
+            super(mensagem, causa);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        novasTentativas.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.SugestaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Curso;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Disciplina;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Usuario;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Autocompletar de nomes de cursos, disciplinas e usuários, sem acesso ao banco na consulta.
+ * Cursos e disciplinas acompanham as recargas do {@link CatalogoService}; usuários são carregados
+ * na inicialização e atualizados após cada cadastro, alteração ou remoção.
+ */
+@Service
+public class IndiceNomesService {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final UsuarioRepository usuarioRepository;
+    private final IndicePrefixos<Long> cursos = new IndicePrefixos<>();
+    private final IndicePrefixos<Long> disciplinas = new IndicePrefixos<>();
+    private final IndicePrefixos<String> usuarios = new IndicePrefixos<>();
+
+    public IndiceNomesService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarUsuarios() {
+        Map<String, String> nomes = new HashMap<>();
+        for (Object[] linha : usuarioRepository.listarNomes()) {
+            nomes.put((String) linha[0], nomeExibido((String) linha[1], (String) linha[2]));
+        }
+        usuarios.substituir(nomes);
+    }
+
+    public void substituirCatalogo(Curso[] todosCursos, Disciplina[] todasDisciplinas) {
+        Map<Long, String> nomesCursos = new LinkedHashMap<>();
+        for (Curso curso : todosCursos) nomesCursos.put(curso.getId(), curso.getNome());
+        Map<Long, String> nomesDisciplinas = new LinkedHashMap<>();
+        for (Disciplina disciplina : todasDisciplinas) nomesDisciplinas.put(disciplina.getId(), disciplina.getNome());
+
+        cursos.substituir(nomesCursos);
+        disciplinas.substituir(nomesDisciplinas);
+    }
+
+    public void atualizarUsuarioAposCommit(Usuario usuario) {
+        String id = usuario.getId();
+        String nome = nomeExibido(usuario.getNome(), usuario.getLogin());
+        executarAposCommit(() -> usuarios.atualizar(id, nome));
+    }
+
+    public void removerUsuarioAposCommit(String id) {
+        executarAposCommit(() -> usuarios.remover(id));
+    }
+
+    public List<SugestaoDTO> sugerirCursos(String prefixo, int limite) {
+        return converter(cursos.buscar(prefixo, limitar(limite)));
+    }
+
+    public List<SugestaoDTO> sugerirDisciplinas(String prefixo, int limite) {
+        return converter(disciplinas.buscar(prefixo, limitar(limite)));
+    }
+
+    public List<SugestaoDTO> sugerirUsuarios(String prefixo, int limite) {
+        return converter(usuarios.buscar(prefixo, limitar(limite)));
+    }
+
+    private static int limitar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    private static String nomeExibido(String nome, String login) {
+        return nome == null || nome.isBlank() ? login : nome;
+    }
+
+    private static List<SugestaoDTO> converter(List<? extends IndicePrefixos.Sugestao<?>> sugestoes) {
+        return sugestoes.stream()
+                .map(s -> new SugestaoDTO(s.id(), s.nome()))
+                .collect(Collectors.toList());
+    }
+
+    private void executarAposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.DiaSemana;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaRepository;
+import jakarta.validation.ValidationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória da ocupação das salas pelas monitorias.
+ * Para cada sala e dia da semana guarda faixas de datas; cada faixa tem um BitSet com os intervalos
+ * de 5 minutos ocupados naquele período. Conflitos e salas livres viram operações de bits.
+ * Monitorias reprovadas ou canceladas não ocupam sala.
+ */
+@Service
+public class IndiceOcupacaoSalas {
+
+    public static final int MINUTOS_POR_INTERVALO = 5;
+    private static final int SEGUNDOS_POR_INTERVALO = MINUTOS_POR_INTERVALO * 60;
+    private static final Set<StatusMonitoria> SEM_OCUPACAO = EnumSet.of(StatusMonitoria.REPROVADA, StatusMonitoria.CANCELADA);
+
+    private final MonitoriaRepository monitoriaRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Reserva> reservas = new HashMap<>();
+    private final Map<String, Set<Long>> reservasPorSala = new HashMap<>();
+    private final Map<String, EnumMap<DiaSemana, Ocupacao>> ocupacaoPorSala = new HashMap<>();
+    // Nome da sala como foi cadastrado, pela chave normalizada
+    private final Map<String, String> nomesSalas = new TreeMap<>();
+
+    public IndiceOcupacaoSalas(MonitoriaRepository monitoriaRepository) {
+        this.monitoriaRepository = monitoriaRepository;
+    }
+
+    public record Reserva(Long id, String sala, LocalDate dataInicio, LocalDate dataTermino,
+                          Set<DiaSemana> diasSemana, LocalTime horarioInicio, LocalTime horarioTermino) {
+
+        public static Reserva de(Monitoria monitoria) {
+            return new Reserva(monitoria.getId(), monitoria.getSala(), monitoria.getDataInicio(), monitoria.getDataTermino(),
+                    monitoria.getDiasSemana() == null ? Set.of() : EnumSet.copyOf(monitoria.getDiasSemana()),
+                    monitoria.getHorarioInicio(), monitoria.getHorarioTermino());
+        }
+
+        boolean indexavel() {
+            return sala != null && !sala.isBlank() && dataInicio != null && dataTermino != null
+                    && !diasSemana.isEmpty() && horarioInicio != null && horarioTermino != null
+                    && horarioTermino.isAfter(horarioInicio);
+        }
+    }
+
+    public static String normalizarSala(String sala) {
+        return IndiceProjetoService.normalizar(sala);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        Map<Long, Set<DiaSemana>> dias = new HashMap<>();
+        for (Object[] linha : monitoriaRepository.listarDiasOcupacao(SEM_OCUPACAO)) {
+            dias.computeIfAbsent((Long) linha[0], id -> EnumSet.noneOf(DiaSemana.class)).add((DiaSemana) linha[1]);
+        }
+        List<Object[]> linhas = monitoriaRepository.listarDadosOcupacao(SEM_OCUPACAO);
+
+        lock.writeLock().lock();
+        try {
+            reservas.clear();
+            reservasPorSala.clear();
+            ocupacaoPorSala.clear();
+            nomesSalas.clear();
+            for (Object[] linha : linhas) {
+                Long id = (Long) linha[0];
+                indexar(new Reserva(id, (String) linha[1], (LocalDate) linha[2], (LocalDate) linha[3],
+                        dias.getOrDefault(id, Set.of()), (LocalTime) linha[4], (LocalTime) linha[5]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Confere conflitos e já ocupa a sala, numa única operação sob o lock de escrita: dois cadastros simultâneos
+     * não passam pela mesma verificação. Se a transação não for confirmada, o estado anterior é restaurado.
+     */
+    public void reservar(Monitoria monitoria) {
+        if (monitoria.getStatus() != null && SEM_OCUPACAO.contains(monitoria.getStatus())) {
+            removerAposCommit(monitoria.getId());
+            return;
+        }
+
+        Reserva reserva = Reserva.de(monitoria);
+        Reserva anterior;
+        lock.writeLock().lock();
+        try {
+            Long conflito = buscarConflito(reserva);
+            if (conflito != null) {
+                throw new ValidationException("A sala " + reserva.sala() + " já está ocupada nesse horário pela monitoria " + conflito);
+            }
+            anterior = desindexar(reserva.id());
+            indexar(reserva);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) restaurar(reserva.id(), anterior);
+                }
+            });
+        }
+    }
+
+    public void removerAposCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover(id);
+                }
+            });
+        } else {
+            remover(id);
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Id da monitoria que já ocupa a sala em algum dos horários da reserva, ou null
+    public Long verificarConflito(Reserva reserva) {
+        lock.readLock().lock();
+        try {
+            return buscarConflito(reserva);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Salas conhecidas (já usadas por alguma monitoria) sem ocupação na data e no horário informados
+    public List<String> salasLivres(LocalDate data, LocalTime inicio, LocalTime termino) {
+        DiaSemana dia = diaSemana(data.getDayOfWeek());
+        BitSet horarios = intervalos(inicio, termino);
+
+        lock.readLock().lock();
+        try {
+            List<String> livres = new ArrayList<>();
+            nomesSalas.forEach((chave, nome) -> {
+                EnumMap<DiaSemana, Ocupacao> porDia = ocupacaoPorSala.get(chave);
+                Ocupacao ocupacao = porDia == null ? null : porDia.get(dia);
+                if (ocupacao == null || !ocupacao.ocupadoEm(data).intersects(horarios)) {
+                    livres.add(nome);
+                }
+            });
+            return livres;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Long buscarConflito(Reserva reserva) {
+        if (!reserva.indexavel()) return null;
+
+        String chave = normalizarSala(reserva.sala());
+        EnumMap<DiaSemana, Ocupacao> porDia = ocupacaoPorSala.get(chave);
+        if (porDia == null) return null;
+
+        BitSet horarios = intervalos(reserva.horarioInicio(), reserva.horarioTermino());
+        for (DiaSemana dia : reserva.diasSemana()) {
+            Ocupacao ocupacao = porDia.get(dia);
+            LocalDate[] periodo = periodo(reserva, dia);
+            if (ocupacao == null || periodo == null || !ocupacao.intersecta(periodo[0], periodo[1], horarios)) {
+                continue;
+            }
+
+            // Há bits ocupados: descobre qual monitoria é (ignorando a própria, numa atualização)
+            for (Long id : reservasPorSala.getOrDefault(chave, Set.of())) {
+                if (id.equals(reserva.id())) continue;
+                Reserva outra = reservas.get(id);
+                LocalDate[] periodoOutra = periodo(outra, dia);
+                if (periodoOutra != null && outra.diasSemana().contains(dia)
+                        && !periodoOutra[0].isAfter(periodo[1]) && !periodo[0].isAfter(periodoOutra[1])
+                        && intervalos(outra.horarioInicio(), outra.horarioTermino()).intersects(horarios)) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void indexar(Reserva reserva) {
+        if (reserva.id() == null || !reserva.indexavel()) return;
+
+        String chave = normalizarSala(reserva.sala());
+        reservas.put(reserva.id(), reserva);
+        reservasPorSala.computeIfAbsent(chave, c -> new HashSet<>()).add(reserva.id());
+        nomesSalas.putIfAbsent(chave, reserva.sala().trim());
+
+        BitSet horarios = intervalos(reserva.horarioInicio(), reserva.horarioTermino());
+        EnumMap<DiaSemana, Ocupacao> porDia = ocupacaoPorSala.computeIfAbsent(chave, c -> new EnumMap<>(DiaSemana.class));
+        for (DiaSemana dia : reserva.diasSemana()) {
+            LocalDate[] periodo = periodo(reserva, dia);
+            if (periodo != null) {
+                porDia.computeIfAbsent(dia, d -> new Ocupacao()).ocupar(periodo[0], periodo[1], horarios);
+            }
+        }
+    }
+
+    // Bits não têm contagem: as faixas dos dias afetados são refeitas a partir das reservas restantes da sala
+    private Reserva desindexar(Long id) {
+        Reserva reserva = id == null ? null : reservas.remove(id);
+        if (reserva == null) return null;
+
+        String chave = normalizarSala(reserva.sala());
+        Set<Long> ids = reservasPorSala.get(chave);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            reservasPorSala.remove(chave);
+            ocupacaoPorSala.remove(chave);
+            nomesSalas.remove(chave);
+            return reserva;
+        }
+
+        EnumMap<DiaSemana, Ocupacao> porDia = ocupacaoPorSala.get(chave);
+        for (DiaSemana dia : reserva.diasSemana()) {
+            Ocupacao refeita = new Ocupacao();
+            for (Long outroId : ids) {
+                Reserva outra = reservas.get(outroId);
+                LocalDate[] periodo = outra.diasSemana().contains(dia) ? periodo(outra, dia) : null;
+                if (periodo != null) {
+                    refeita.ocupar(periodo[0], periodo[1], intervalos(outra.horarioInicio(), outra.horarioTermino()));
+                }
+            }
+            if (refeita.vazia()) porDia.remove(dia);
+            else porDia.put(dia, refeita);
+        }
+        return reserva;
+    }
+
+    private void restaurar(Long id, Reserva anterior) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+            if (anterior != null) indexar(anterior);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Primeira e última ocorrência do dia da semana dentro do período da monitoria, ou null se não houver
+    private static LocalDate[] periodo(Reserva reserva, DiaSemana dia) {
+        DayOfWeek diaJava = diaJava(dia);
+        LocalDate primeira = reserva.dataInicio().with(TemporalAdjusters.nextOrSame(diaJava));
+        LocalDate ultima = reserva.dataTermino().with(TemporalAdjusters.previousOrSame(diaJava));
+        return primeira.isAfter(ultima) ? null : new LocalDate[]{primeira, ultima};
+    }
+
+    private static BitSet intervalos(LocalTime inicio, LocalTime termino) {
+        BitSet bits = new BitSet();
+        int primeiro = inicio.toSecondOfDay() / SEGUNDOS_POR_INTERVALO;
+        int fim = (termino.toSecondOfDay() + SEGUNDOS_POR_INTERVALO - 1) / SEGUNDOS_POR_INTERVALO;
+        if (fim > primeiro) bits.set(primeiro, fim);
+        return bits;
+    }
+
+    public static DayOfWeek diaJava(DiaSemana dia) {
+        return switch (dia) {
+            case DOMINGO -> DayOfWeek.SUNDAY;
+            case SEGUNDA -> DayOfWeek.MONDAY;
+            case TERCA -> DayOfWeek.TUESDAY;
+            case QUARTA -> DayOfWeek.WEDNESDAY;
+            case QUINTA -> DayOfWeek.THURSDAY;
+            case SEXTA -> DayOfWeek.FRIDAY;
+            case SABADO -> DayOfWeek.SATURDAY;
+        };
+    }
+
+    public static DiaSemana diaSemana(DayOfWeek dia) {
+        return switch (dia) {
+            case SUNDAY -> DiaSemana.DOMINGO;
+            case MONDAY -> DiaSemana.SEGUNDA;
+            case TUESDAY -> DiaSemana.TERCA;
+            case WEDNESDAY -> DiaSemana.QUARTA;
+            case THURSDAY -> DiaSemana.QUINTA;
+            case FRIDAY -> DiaSemana.SEXTA;
+            case SATURDAY -> DiaSemana.SABADO;
+        };
+    }
+
+    /**
+     * Ocupação de uma sala num dia da semana: cada chave inicia uma faixa de datas que vale até a próxima chave.
+     * Faixas sem nenhum bit marcam o fim de um período.
+     */
+    private static class Ocupacao {
+
+        private final TreeMap<LocalDate, BitSet> faixas = new TreeMap<>();
+
+        void ocupar(LocalDate inicio, LocalDate termino, BitSet horarios) {
+            LocalDate depois = termino.plusDays(1);
+            dividirEm(inicio);
+            dividirEm(depois);
+            for (BitSet faixa : faixas.subMap(inicio, true, depois, false).values()) {
+                faixa.or(horarios);
+            }
+        }
+
+        boolean intersecta(LocalDate inicio, LocalDate termino, BitSet horarios) {
+            if (ocupadoEm(inicio).intersects(horarios)) return true;
+            for (BitSet faixa : faixas.subMap(inicio, false, termino, true).values()) {
+                if (faixa.intersects(horarios)) return true;
+            }
+            return false;
+        }
+
+        BitSet ocupadoEm(LocalDate data) {
+            Map.Entry<LocalDate, BitSet> faixa = faixas.floorEntry(data);
+            return faixa == null ? new BitSet() : faixa.getValue();
+        }
+
+        boolean vazia() {
+            return faixas.values().stream().allMatch(BitSet::isEmpty);
+        }
+
+        private void dividirEm(LocalDate data) {
+            if (!faixas.containsKey(data)) {
+                faixas.put(data, (BitSet) ocupadoEm(data).clone());
+            }
+        }
+    }
+}
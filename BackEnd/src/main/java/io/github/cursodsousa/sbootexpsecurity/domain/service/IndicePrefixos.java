@@ -0,0 +1,118 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Arrays ordenados de nomes normalizados, consultados por busca binária do prefixo.
+ * Um array tem o nome inteiro, o outro cada palavra a partir da segunda ("bio" encontra "Ciências Biológicas");
+ * os resultados do nome inteiro vêm primeiro. Escritas copiam os arrays e os trocam de uma vez.
+ */
+final class IndicePrefixos<ID> {
+
+    record Sugestao<ID>(ID id, String nome) {
+    }
+
+    private record Entrada<ID>(String chave, ID id, String nome) {
+    }
+
+    private record Retrato<ID>(List<Entrada<ID>> nomes, List<Entrada<ID>> palavras) {
+    }
+
+    private final Comparator<Entrada<ID>> ordem = Comparator.comparing(Entrada<ID>::chave)
+            .thenComparing(Entrada::nome);
+
+    private volatile Retrato<ID> retrato = new Retrato<>(List.of(), List.of());
+
+    synchronized void substituir(Map<ID, String> nomes) {
+        List<Entrada<ID>> inteiros = new ArrayList<>();
+        List<Entrada<ID>> palavras = new ArrayList<>();
+        nomes.forEach((id, nome) -> entradas(id, nome, inteiros, palavras));
+        inteiros.sort(ordem);
+        palavras.sort(ordem);
+        retrato = new Retrato<>(List.copyOf(inteiros), List.copyOf(palavras));
+    }
+
+    synchronized void atualizar(ID id, String nome) {
+        List<Entrada<ID>> inteiros = new ArrayList<>();
+        List<Entrada<ID>> palavras = new ArrayList<>();
+        entradas(id, nome, inteiros, palavras);
+        palavras.sort(ordem);
+        Retrato<ID> atual = retrato;
+        retrato = new Retrato<>(mesclar(atual.nomes(), id, inteiros), mesclar(atual.palavras(), id, palavras));
+    }
+
+    synchronized void remover(ID id) {
+        Retrato<ID> atual = retrato;
+        retrato = new Retrato<>(mesclar(atual.nomes(), id, List.of()), mesclar(atual.palavras(), id, List.of()));
+    }
+
+    List<Sugestao<ID>> buscar(String prefixo, int limite) {
+        String chave = IndiceProjetoService.normalizar(prefixo);
+        List<Sugestao<ID>> encontrados = new ArrayList<>();
+        if (chave.isEmpty() || limite <= 0) return encontrados;
+
+        Retrato<ID> atual = retrato;
+        Set<ID> vistos = new HashSet<>();
+        coletar(atual.nomes(), chave, limite, vistos, encontrados);
+        coletar(atual.palavras(), chave, limite, vistos, encontrados);
+        return encontrados;
+    }
+
+    private void coletar(List<Entrada<ID>> entradas, String chave, int limite, Set<ID> vistos,
+                         List<Sugestao<ID>> encontrados) {
+        for (int i = primeiraPosicao(entradas, chave); i < entradas.size() && encontrados.size() < limite; i++) {
+            Entrada<ID> entrada = entradas.get(i);
+            if (!entrada.chave().startsWith(chave)) break;
+            if (vistos.add(entrada.id())) {
+                encontrados.add(new Sugestao<>(entrada.id(), entrada.nome()));
+            }
+        }
+    }
+
+    // Primeira posição cuja chave é >= prefixo
+    private static int primeiraPosicao(List<? extends Entrada<?>> entradas, String prefixo) {
+        int inicio = 0;
+        int fim = entradas.size();
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (entradas.get(meio).chave().compareTo(prefixo) < 0) inicio = meio + 1;
+            else fim = meio;
+        }
+        return inicio;
+    }
+
+    // Remove as entradas do id e intercala as novas (já ordenadas) numa única passada
+    private List<Entrada<ID>> mesclar(List<Entrada<ID>> atuais, ID id, List<Entrada<ID>> novas) {
+        List<Entrada<ID>> resultado = new ArrayList<>(atuais.size() + novas.size());
+        int n = 0;
+        for (Entrada<ID> entrada : atuais) {
+            if (Objects.equals(entrada.id(), id)) continue;
+            while (n < novas.size() && ordem.compare(novas.get(n), entrada) <= 0) {
+                resultado.add(novas.get(n++));
+            }
+            resultado.add(entrada);
+        }
+        while (n < novas.size()) {
+            resultado.add(novas.get(n++));
+        }
+        return List.copyOf(resultado);
+    }
+
+    private void entradas(ID id, String nome, List<Entrada<ID>> inteiros, List<Entrada<ID>> palavras) {
+        String chave = IndiceProjetoService.normalizar(nome);
+        if (id == null || chave.isEmpty()) return;
+
+        inteiros.add(new Entrada<>(chave, id, nome.trim()));
+        Set<String> sufixos = new HashSet<>();
+        for (int i = chave.indexOf(' '); i >= 0; i = chave.indexOf(' ', i + 1)) {
+            String sufixo = chave.substring(i + 1);
+            if (sufixos.add(sufixo)) palavras.add(new Entrada<>(sufixo, id, nome.trim()));
+        }
+    }
+}
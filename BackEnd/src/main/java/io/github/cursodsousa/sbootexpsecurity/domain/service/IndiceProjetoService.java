@@ -0,0 +1,292 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Projeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusProjeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.ProjetoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória das palavras-chave dos projetos.
+ * Cada projeto ocupa um slot; as listas de ocorrência são BitSets de slots e as facetas
+ * (área, tipo e status) ficam em arrays de ordinais, contados numa única passada sobre o resultado.
+ */
+@Service
+public class IndiceProjetoService {
+
+    public static final String FACETA_AREA = "areaConhecimento";
+    public static final String FACETA_TIPO = "tipoProjeto";
+    public static final String FACETA_STATUS = "status";
+
+    private static final int TAMANHO_MAXIMO_TERMO = 100;
+
+    private final ProjetoRepository projetoRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private final Map<String, BitSet> ocorrencias = new HashMap<>();
+    private final BitSet ativos = new BitSet();
+
+    private final List<String> areas = new ArrayList<>();
+    private final Map<String, Integer> ordinalArea = new HashMap<>();
+    private final List<String> tipos = new ArrayList<>();
+    private final Map<String, Integer> ordinalTipo = new HashMap<>();
+
+    private long[] idPorSlot = new long[64];
+    private int[] areaPorSlot = new int[64];
+    private int[] tipoPorSlot = new int[64];
+    private int[] statusPorSlot = new int[64];
+    private String[][] termosPorSlot = new String[64][];
+
+    // Alterações recebidas durante uma reconstrução, reaplicadas sobre o índice novo; null fora dela
+    private List<Runnable> pendentes;
+
+    public IndiceProjetoService(ProjetoRepository projetoRepository) {
+        this.projetoRepository = projetoRepository;
+    }
+
+    public record Entrada(Long id, String areaConhecimento, String tipoProjeto, StatusProjeto status, Set<String> termos) {
+        public static Entrada de(Projeto projeto) {
+            return new Entrada(projeto.getId(), projeto.getAreaConhecimento(), projeto.getTipoProjeto(),
+                    projeto.getStatus(), extrairTermos(projeto.getPalavrasChave()));
+        }
+    }
+
+    public record Resultado(long[] ids, int total, Map<String, Map<String, Integer>> facetas) {
+    }
+
+    // Normalização usada tanto na indexação quanto na consulta
+    public static String normalizar(String termo) {
+        if (termo == null) return "";
+        String semAcento = Normalizer.normalize(termo, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        String normalizado = semAcento.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+        return normalizado.length() > TAMANHO_MAXIMO_TERMO ? normalizado.substring(0, TAMANHO_MAXIMO_TERMO) : normalizado;
+    }
+
+    public static Set<String> extrairTermos(String palavrasChave) {
+        Set<String> termos = new LinkedHashSet<>();
+        if (palavrasChave == null || palavrasChave.isBlank()) return termos;
+        for (String parte : palavrasChave.split("[,;\n]")) {
+            String termo = normalizar(parte);
+            if (!termo.isEmpty()) termos.add(termo);
+        }
+        return termos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        // Marcado antes da leitura: o que for confirmado depois dela chega por atualizar/remover e é guardado
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> linhas;
+        try {
+            // Lê apenas colunas curtas; os campos TEXT do projeto não são carregados
+            linhas = projetoRepository.listarDadosIndice();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            slotPorId.clear();
+            ocorrencias.clear();
+            ativos.clear();
+            for (Object[] linha : linhas) {
+                String palavrasChave = (String) linha[4];
+                indexar(new Entrada((Long) linha[0], (String) linha[1], (String) linha[2],
+                        (StatusProjeto) linha[3], extrairTermos(palavrasChave)));
+            }
+            // Na ordem em que chegaram; reaplicar uma alteração já contida na leitura não muda o resultado
+            pendentes.forEach(Runnable::run);
+        } finally {
+            pendentes = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void atualizarAposCommit(Projeto projeto) {
+        Entrada entrada = Entrada.de(projeto);
+        executarAposCommit(() -> atualizar(entrada));
+    }
+
+    public void removerAposCommit(Long id) {
+        executarAposCommit(() -> remover(id));
+    }
+
+    public void atualizar(Entrada entrada) {
+        lock.writeLock().lock();
+        try {
+            indexar(entrada);
+            if (pendentes != null) pendentes.add(() -> indexar(entrada));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+            if (pendentes != null) pendentes.add(() -> desindexar(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Resultado buscar(String consulta, String area, String tipo, StatusProjeto status, int pagina, int tamanho) {
+        Set<String> termos = extrairTermos(consulta);
+
+        lock.readLock().lock();
+        try {
+            BitSet candidatos = (BitSet) ativos.clone();
+            for (String termo : termos) {
+                BitSet lista = ocorrencias.get(termo);
+                if (lista == null) {
+                    candidatos.clear();
+                    break;
+                }
+                candidatos.and(lista);
+            }
+
+            int filtroArea = area == null ? -1 : ordinalArea.getOrDefault(area, -2);
+            int filtroTipo = tipo == null ? -1 : ordinalTipo.getOrDefault(tipo, -2);
+            int filtroStatus = status == null ? -1 : status.ordinal();
+
+            int[] contagemArea = new int[areas.size()];
+            int[] contagemTipo = new int[tipos.size()];
+            int[] contagemStatus = new int[StatusProjeto.values().length];
+            long[] encontrados = new long[candidatos.cardinality()];
+            int total = 0;
+
+            for (int slot = candidatos.nextSetBit(0); slot >= 0; slot = candidatos.nextSetBit(slot + 1)) {
+                if (filtroArea != -1 && areaPorSlot[slot] != filtroArea) continue;
+                if (filtroTipo != -1 && tipoPorSlot[slot] != filtroTipo) continue;
+                if (filtroStatus != -1 && statusPorSlot[slot] != filtroStatus) continue;
+
+                encontrados[total++] = idPorSlot[slot];
+                contagemArea[areaPorSlot[slot]]++;
+                contagemTipo[tipoPorSlot[slot]]++;
+                contagemStatus[statusPorSlot[slot]]++;
+            }
+
+            // Mais recentes primeiro
+            Arrays.sort(encontrados, 0, total);
+            // Em long: uma página muito alta estouraria pagina * tamanho e viraria índice negativo
+            int inicio = (int) Math.min(total, (long) pagina * tamanho);
+            int fim = (int) Math.min(total, (long) inicio + tamanho);
+            long[] paginaIds = new long[fim - inicio];
+            for (int i = 0; i < paginaIds.length; i++) {
+                paginaIds[i] = encontrados[total - 1 - inicio - i];
+            }
+
+            Map<String, Map<String, Integer>> facetas = new LinkedHashMap<>();
+            facetas.put(FACETA_AREA, contagens(areas, contagemArea));
+            facetas.put(FACETA_TIPO, contagens(tipos, contagemTipo));
+            List<String> nomesStatus = Arrays.stream(StatusProjeto.values()).map(Enum::name).toList();
+            facetas.put(FACETA_STATUS, contagens(nomesStatus, contagemStatus));
+
+            return new Resultado(paginaIds, total, facetas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Integer> contagens(List<String> valores, int[] contagem) {
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < contagem.length; i++) {
+            if (contagem[i] > 0) resultado.put(valores.get(i), contagem[i]);
+        }
+        return resultado;
+    }
+
+    private void indexar(Entrada entrada) {
+        Integer slot = slotPorId.get(entrada.id());
+        if (slot != null) {
+            liberarSlot(slot);
+        } else {
+            slot = ativos.nextClearBit(0);
+            garantirCapacidade(slot);
+            slotPorId.put(entrada.id(), slot);
+        }
+
+        String[] termos = entrada.termos() == null ? new String[0] : entrada.termos().toArray(new String[0]);
+        idPorSlot[slot] = entrada.id();
+        areaPorSlot[slot] = ordinal(entrada.areaConhecimento(), areas, ordinalArea);
+        tipoPorSlot[slot] = ordinal(entrada.tipoProjeto(), tipos, ordinalTipo);
+        statusPorSlot[slot] = (entrada.status() == null ? StatusProjeto.PENDENTE : entrada.status()).ordinal();
+        termosPorSlot[slot] = termos;
+        for (String termo : termos) {
+            ocorrencias.computeIfAbsent(termo, t -> new BitSet()).set(slot);
+        }
+        ativos.set(slot);
+    }
+
+    private void desindexar(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot != null) liberarSlot(slot);
+    }
+
+    private void liberarSlot(int slot) {
+        String[] termos = termosPorSlot[slot];
+        if (termos != null) {
+            for (String termo : termos) {
+                BitSet lista = ocorrencias.get(termo);
+                if (lista == null) continue;
+                lista.clear(slot);
+                if (lista.isEmpty()) ocorrencias.remove(termo);
+            }
+        }
+        termosPorSlot[slot] = null;
+        ativos.clear(slot);
+    }
+
+    private int ordinal(String valor, List<String> valores, Map<String, Integer> ordinais) {
+        String chave = valor == null ? "" : valor;
+        return ordinais.computeIfAbsent(chave, v -> {
+            valores.add(v);
+            return valores.size() - 1;
+        });
+    }
+
+    private void garantirCapacidade(int slot) {
+        if (slot < idPorSlot.length) return;
+        int novoTamanho = Math.max(idPorSlot.length * 2, slot + 1);
+        idPorSlot = Arrays.copyOf(idPorSlot, novoTamanho);
+        areaPorSlot = Arrays.copyOf(areaPorSlot, novoTamanho);
+        tipoPorSlot = Arrays.copyOf(tipoPorSlot, novoTamanho);
+        statusPorSlot = Arrays.copyOf(statusPorSlot, novoTamanho);
+        termosPorSlot = Arrays.copyOf(termosPorSlot, novoTamanho);
+    }
+
+    private void executarAposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
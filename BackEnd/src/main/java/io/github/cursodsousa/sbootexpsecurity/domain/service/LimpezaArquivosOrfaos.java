@@ -0,0 +1,131 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.armazenamento.ArmazenamentoArquivos;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.DocumentoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Remove arquivos do armazenamento que não pertencem a nenhum documento
+ * (ex.: documentos apagados pela remoção de órfãos de {@code Projeto}).
+ * Cada execução examina um lote de chaves a partir da última processada, consulta o banco com um único IN
+ * por lote e só apaga arquivos mais antigos que o período de carência. Conteúdo deduplicado é removido por
+ * {@link DocumentoService#removerConteudoSemUso}, que confere os documentos existentes sob o lock do conteúdo
+ * (corrigindo divergências deixadas por remoções em cascata).
+ */
+@Component
+public class LimpezaArquivosOrfaos {
+
+    private static final Logger log = LoggerFactory.getLogger(LimpezaArquivosOrfaos.class);
+    private static final Pattern HASH_CONTEUDO = Pattern.compile("[0-9a-f]{64}");
+    private static final String PREFIXO_TEMPORARIO = "upload-";
+
+    private final DocumentoRepository documentoRepository;
+    private final DocumentoService documentoService;
+    private final ArmazenamentoArquivos armazenamento;
+    private final Counter arquivosRecuperados;
+    private final Counter bytesRecuperados;
+
+    @Value("${app.upload.limpeza-orfaos.lote:500}")
+    private int tamanhoLote;
+    @Value("${app.upload.limpeza-orfaos.carencia-horas:24}")
+    private long carenciaHoras;
+
+    // Última chave examinada; a próxima execução continua dela e volta ao início ao chegar no fim
+    private String cursor = "";
+
+    public LimpezaArquivosOrfaos(DocumentoRepository documentoRepository,
+                                 DocumentoService documentoService,
+                                 ArmazenamentoArquivos armazenamento,
+                                 MeterRegistry meterRegistry) {
+        this.documentoRepository = documentoRepository;
+        this.documentoService = documentoService;
+        this.armazenamento = armazenamento;
+        this.arquivosRecuperados = Counter.builder("bioconnect.armazenamento.arquivos.recuperados")
+                .description("Arquivos sem documento removidos do armazenamento")
+                .register(meterRegistry);
+        this.bytesRecuperados = Counter.builder("bioconnect.armazenamento.bytes.recuperados")
+                .description("Espaço liberado pela remoção de arquivos sem documento")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.limpeza-orfaos.intervalo-ms:600000}",
+            initialDelayString = "${app.upload.limpeza-orfaos.intervalo-ms:600000}")
+    public void executar() {
+        Instant limite = Instant.now().minus(Duration.ofHours(carenciaHoras));
+        try {
+            List<String> chaves = armazenamento.listar(cursor, tamanhoLote);
+            cursor = chaves.size() < tamanhoLote ? "" : chaves.get(chaves.size() - 1);
+
+            Map<String, Long> candidatos = arquivosAntigos(chaves, limite);
+            if (!candidatos.isEmpty()) {
+                Set<String> emUso = new HashSet<>(documentoRepository.listarCaminhosEmUso(candidatos.keySet()));
+                candidatos.forEach((nome, tamanho) -> {
+                    if (!emUso.contains(nome)) remover(nome, tamanho);
+                });
+            }
+
+            limparTemporarios(limite);
+        } catch (IOException e) {
+            log.warn("Falha ao percorrer o armazenamento de arquivos", e);
+        }
+    }
+
+    private Map<String, Long> arquivosAntigos(List<String> chaves, Instant limite) {
+        Map<String, Long> antigos = new LinkedHashMap<>();
+        for (String chave : chaves) {
+            armazenamento.consultar(chave)
+                    .filter(info -> info.modificadoEm().isBefore(limite))
+                    .ifPresent(info -> antigos.put(chave, info.tamanho()));
+        }
+        return antigos;
+    }
+
+    private void remover(String nome, long tamanho) {
+        try {
+            boolean removido = HASH_CONTEUDO.matcher(nome).matches()
+                    ? documentoService.removerConteudoSemUso(nome, tamanho)
+                    : armazenamento.remover(nome);
+            if (removido) {
+                arquivosRecuperados.increment();
+                bytesRecuperados.increment(tamanho);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao remover o arquivo órfão {}", nome, e);
+        }
+    }
+
+    // Arquivos temporários de uploads interrompidos (os .part do upload em partes têm limpeza própria)
+    private void limparTemporarios(Instant limite) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(
+                armazenamento.diretorioTemporario(), PREFIXO_TEMPORARIO + "*")) {
+            for (Path arquivo : arquivos) {
+                BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+                if (atributos.lastModifiedTime().toInstant().isBefore(limite) && Files.deleteIfExists(arquivo)) {
+                    arquivosRecuperados.increment();
+                    bytesRecuperados.increment(atributos.size());
+                }
+            }
+        }
+    }
+}
@@ -3,21 +3,27 @@ package io.github.cursodsousa.sbootexpsecurity.domain.service;
 
 import io.github.cursodsousa.sbootexpsecurity.api.dto.MonitoriaDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.MonitoriaResponseDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PaginaMonitoriasDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.*;
-import io.github.cursodsousa.sbootexpsecurity.domain.repository.CursoRepository;
-import io.github.cursodsousa.sbootexpsecurity.domain.repository.DisciplinaRepository;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaSpecifications;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.api.OpenApiResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,18 +33,25 @@ public class MonitoriaService {
     @Autowired
     private MonitoriaRepository monitoriaRepository;
     @Autowired
-    private DisciplinaRepository disciplinaRepository;
+    private CatalogoService catalogoService;
     @Autowired
-    private CursoRepository cursoRepository;
+    private IndiceOcupacaoSalas indiceOcupacaoSalas;
+    @Autowired
+    private AgendaMonitoriaService agendaMonitoriaService;
+    @Autowired
+    private RelatorioBolsasService relatorioBolsasService;
 
 
     // Métodos principais
+    @Transactional
     public MonitoriaResponseDTO criarMonitoria(MonitoriaDTO dto) {
         validarMonitoria(dto);
 
         Monitoria monitoria = dtoParaEntidade(dto);
         monitoria.setStatus(StatusMonitoria.PENDENTE);
         monitoria = monitoriaRepository.save(monitoria);
+        indiceOcupacaoSalas.reservar(monitoria);
+        relatorioBolsasService.invalidarAposCommit();
 
         return entidadeParaResponseDTO(monitoria);
     }
@@ -49,12 +62,40 @@ public class MonitoriaService {
         return entidadeParaResponseDTO(monitoria);
     }
 
+    // Disciplina, curso e dias da semana vêm na mesma consulta (fetch join), sem selects por linha
+    @Transactional(readOnly = true)
     public List<MonitoriaResponseDTO> listarTodas() {
-        return monitoriaRepository.findAll().stream()
+        return monitoriaRepository.listarComAssociacoes().stream()
                 .map(this::entidadeParaResponseDTO)
                 .collect(Collectors.toList());
     }
 
+    // No máximo três consultas por página, independente do tamanho: ids da página, contagem e monitorias com associações
+    @Transactional(readOnly = true)
+    public PaginaMonitoriasDTO listarPagina(Long cursoId, Long disciplinaId, String semestre, StatusMonitoria status,
+                                            Boolean bolsa, int pagina, int tamanho) {
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, 100));
+        Page<Long> ids = monitoriaRepository.buscarIds(
+                MonitoriaSpecifications.filtrar(cursoId, disciplinaId, semestre, status, bolsa),
+                PageRequest.of(Math.max(0, pagina), tamanhoPagina));
+
+        Map<Long, Monitoria> porId = ids.isEmpty() ? Map.of()
+                : monitoriaRepository.buscarComAssociacoes(ids.getContent()).stream()
+                        .collect(Collectors.toMap(Monitoria::getId, Function.identity()));
+
+        return PaginaMonitoriasDTO.builder()
+                .total(ids.getTotalElements())
+                .pagina(ids.getNumber())
+                .tamanho(tamanhoPagina)
+                .monitorias(ids.getContent().stream()
+                        .map(porId::get)
+                        .filter(Objects::nonNull)
+                        .map(this::entidadeParaResponseDTO)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Transactional
     public MonitoriaResponseDTO atualizarMonitoria(Long id, MonitoriaDTO dto) {
         Monitoria monitoriaExistente = monitoriaRepository.findById(id)
                 .orElseThrow(() -> new OpenApiResourceNotFoundException("Monitoria não encontrada"));
@@ -63,25 +104,34 @@ public class MonitoriaService {
         atualizarEntidadeComDTO(monitoriaExistente, dto);
 
         Monitoria monitoriaAtualizada = monitoriaRepository.save(monitoriaExistente);
+        indiceOcupacaoSalas.reservar(monitoriaAtualizada);
+        agendaMonitoriaService.invalidarAposCommit(id);
+        relatorioBolsasService.invalidarAposCommit();
         return entidadeParaResponseDTO(monitoriaAtualizada);
     }
 
+    @Transactional
     public void deletarMonitoria(Long id) {
         if (!monitoriaRepository.existsById(id)) {
             throw new OpenApiResourceNotFoundException("Monitoria não encontrada");
         }
         monitoriaRepository.deleteById(id);
+        indiceOcupacaoSalas.removerAposCommit(id);
+        agendaMonitoriaService.invalidarAposCommit(id);
+        relatorioBolsasService.invalidarAposCommit();
+    }
+
+    public List<String> listarSalasLivres(LocalDate data, LocalTime inicio, LocalTime termino) {
+        validarHorarios(inicio, termino);
+        return indiceOcupacaoSalas.salasLivres(data, inicio, termino);
     }
 
     // Métodos de conversão
     private Monitoria dtoParaEntidade(MonitoriaDTO dto) {
         Monitoria monitoria = new Monitoria();
 
-        monitoria.setDisciplina(disciplinaRepository.findById(dto.getDisciplinaId())
-                .orElseThrow(() -> new OpenApiResourceNotFoundException("Disciplina não encontrada")));
-
-        monitoria.setCurso(cursoRepository.findById(dto.getCursoId())
-                .orElseThrow(() -> new OpenApiResourceNotFoundException("Curso não encontrado")));
+        monitoria.setDisciplina(catalogoService.referenciaDisciplina(dto.getDisciplinaId()));
+        monitoria.setCurso(catalogoService.referenciaCurso(dto.getCursoId()));
 
         monitoria.setSemestre(dto.getSemestre());
         monitoria.setCargaHoraria(dto.getCargaHoraria());
@@ -107,9 +157,9 @@ public class MonitoriaService {
         // Mapear campos básicos
         responseDTO.setId(monitoria.getId());
         responseDTO.setDisciplinaId(monitoria.getDisciplina().getId());
-        responseDTO.setDisciplinaNome(monitoria.getDisciplina().getNome());
+        responseDTO.setDisciplinaNome(nomeDisciplina(monitoria.getDisciplina()));
         responseDTO.setCursoId(monitoria.getCurso().getId());
-        responseDTO.setCursoNome(monitoria.getCurso().getNome());
+        responseDTO.setCursoNome(nomeCurso(monitoria.getCurso()));
         responseDTO.setSemestre(monitoria.getSemestre());
         responseDTO.setCargaHoraria(monitoria.getCargaHoraria());
         responseDTO.setDataInicio(monitoria.getDataInicio());
@@ -129,15 +179,24 @@ public class MonitoriaService {
         return responseDTO;
     }
 
+    // Nomes vêm do catálogo em memória: disciplina e curso podem ser referências ainda não carregadas
+    private String nomeDisciplina(Disciplina disciplina) {
+        String nome = catalogoService.nomeDisciplina(disciplina.getId());
+        return nome != null ? nome : disciplina.getNome();
+    }
+
+    private String nomeCurso(Curso curso) {
+        String nome = catalogoService.nomeCurso(curso.getId());
+        return nome != null ? nome : curso.getNome();
+    }
+
     private void atualizarEntidadeComDTO(Monitoria monitoria, MonitoriaDTO dto) {
         if (dto.getDisciplinaId() != null) {
-            monitoria.setDisciplina(disciplinaRepository.findById(dto.getDisciplinaId())
-                    .orElseThrow(() -> new OpenApiResourceNotFoundException("Disciplina não encontrada")));
+            monitoria.setDisciplina(catalogoService.referenciaDisciplina(dto.getDisciplinaId()));
         }
 
         if (dto.getCursoId() != null) {
-            monitoria.setCurso(cursoRepository.findById(dto.getCursoId())
-                    .orElseThrow(() -> new OpenApiResourceNotFoundException("Curso não encontrado")));
+            monitoria.setCurso(catalogoService.referenciaCurso(dto.getCursoId()));
         }
 
         if (dto.getSemestre() != null) monitoria.setSemestre(dto.getSemestre());
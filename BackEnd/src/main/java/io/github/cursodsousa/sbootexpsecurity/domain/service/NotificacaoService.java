@@ -0,0 +1,73 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Evento;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Notificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.ParticipanteEvento;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Projeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusNotificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.NotificacaoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Grava notificações na caixa de saída dentro da transação de quem chama.
+ * O envio de fato é feito pelo {@link DespachanteNotificacoes}, fora do caminho da requisição.
+ */
+@Service
+public class NotificacaoService {
+
+    private final NotificacaoRepository notificacaoRepository;
+
+    public NotificacaoService(NotificacaoRepository notificacaoRepository) {
+        this.notificacaoRepository = notificacaoRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notificarProjeto(Projeto projeto, String situacao) {
+        registrar(projeto.getEmailsParticipantes(),
+                "Projeto " + situacao + ": " + projeto.getTitulo(),
+                "O projeto \"" + projeto.getTitulo() + "\" foi " + situacao + ".");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notificarEvento(Evento evento, String situacao) {
+        List<String> emails = evento.getParticipanteEventos() == null ? List.of()
+                : evento.getParticipanteEventos().stream()
+                        .map(ParticipanteEvento::getEmail)
+                        .collect(Collectors.toList());
+        registrar(emails,
+                "Evento " + situacao + ": " + evento.getTitulo(),
+                "O evento \"" + evento.getTitulo() + "\" foi " + situacao + ".");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Collection<String> destinatarios, String assunto, String corpo) {
+        if (destinatarios == null) return;
+
+        String lista = destinatarios.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .distinct()
+                .collect(Collectors.joining(","));
+        if (lista.isEmpty()) return;
+
+        LocalDateTime agora = LocalDateTime.now();
+        Notificacao notificacao = Notificacao.builder()
+                .assunto(assunto)
+                .corpo(corpo)
+                .destinatarios(lista)
+                .status(StatusNotificacao.PENDENTE)
+                .proximaTentativa(agora)
+                .criadoEm(agora)
+                .build();
+        notificacaoRepository.save(notificacao);
+    }
+}
@@ -1,11 +1,13 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.service;
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ParticipanteDTO;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Evento;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.ParticipanteEvento;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.EventoRepository;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.ParticipanteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,20 +20,28 @@ public class ParticipanteService {
     @Autowired
     private ParticipanteRepository participanteRepository;
 
-    public Evento adicionarParticipantes(Long eventoId, List<ParticipanteEvento> participanteEventos) {
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new IllegalArgumentException("Evento não encontrado com ID: " + eventoId));
-
-        for (ParticipanteEvento p : participanteEventos) {
-            p.setEvento(evento);
+    // Devolve só os participantes gravados; o evento entra como referência, sem ser carregado
+    @Transactional
+    public List<ParticipanteDTO> adicionarParticipantes(Long eventoId, List<ParticipanteDTO> participantes) {
+        if (!eventoRepository.existsById(eventoId)) {
+            throw new IllegalArgumentException("Evento não encontrado com ID: " + eventoId);
         }
-
-        participanteRepository.saveAll(participanteEventos);
-
-        return evento;
+        Evento evento = eventoRepository.getReferenceById(eventoId);
+
+        List<ParticipanteEvento> participanteEventos = participantes.stream().map(dto -> {
+            ParticipanteEvento participante = new ParticipanteEvento();
+            participante.setNome(dto.getNome());
+            participante.setEmail(dto.getEmail());
+            participante.setEvento(evento);
+            return participante;
+        }).toList();
+
+        return participanteRepository.saveAll(participanteEventos).stream()
+                .map(ParticipanteDTO::fromParticipante)
+                .toList();
     }
 
-    public List<ParticipanteEvento> listarPorEvento(Long eventoId) {
-        return participanteRepository.findByEventoId(eventoId);
+    public List<ParticipanteDTO> listarPorEvento(Long eventoId) {
+        return participanteRepository.listarPorEvento(eventoId);
     }
 }
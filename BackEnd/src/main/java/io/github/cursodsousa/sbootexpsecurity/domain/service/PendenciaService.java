@@ -0,0 +1,52 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.FilaAprovacaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.PendenciaDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.TipoPendencia;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.PendenciaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Fila única de itens aguardando aprovação do administrador, dos mais antigos para os mais recentes
+@Service
+public class PendenciaService {
+
+    private static final int TAMANHO_MAXIMO = 100;
+
+    private final PendenciaRepository pendenciaRepository;
+
+    public PendenciaService(PendenciaRepository pendenciaRepository) {
+        this.pendenciaRepository = pendenciaRepository;
+    }
+
+    // Lista e contagens na mesma transação, para que o total corresponda à página
+    @Transactional(readOnly = true)
+    public FilaAprovacaoDTO listar(Collection<TipoPendencia> tipos, int pagina, int tamanho) {
+        Set<TipoPendencia> filtro = tipos == null || tipos.isEmpty()
+                ? EnumSet.allOf(TipoPendencia.class) : EnumSet.copyOf(tipos);
+        int numeroPagina = Math.max(0, pagina);
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+
+        Map<TipoPendencia, Long> totalPorTipo = pendenciaRepository.contar(filtro);
+        long total = totalPorTipo.values().stream().mapToLong(Long::longValue).sum();
+        long offset = (long) numeroPagina * tamanhoPagina;
+
+        return FilaAprovacaoDTO.builder()
+                .total(total)
+                .pagina(numeroPagina)
+                .tamanho(tamanhoPagina)
+                .totalPorTipo(Collections.unmodifiableMap(totalPorTipo))
+                .pendencias(offset >= total ? List.of()
+                        : pendenciaRepository.listar(filtro, (int) offset, tamanhoPagina).stream()
+                                .map(p -> new PendenciaDTO(p.tipo(), p.id(), p.titulo(), p.enviadoEm()))
+                                .toList())
+                .build();
+    }
+}
@@ -1,52 +1,199 @@
 package io.github.cursodsousa.sbootexpsecurity.domain.service;
 
+import io.github.cursodsousa.sbootexpsecurity.api.dto.BuscaProjetoDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.CriarProjetoRequest;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ErroImportacaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.ImportacaoProjetosDTO;
 import io.github.cursodsousa.sbootexpsecurity.api.dto.ProjetoDTO;
 import io.github.cursodsousa.sbootexpsecurity.config.ValidacaoException;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.Projeto;
 import io.github.cursodsousa.sbootexpsecurity.domain.repository.ProjetoRepository;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.ProjetoResumo;
 import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusProjeto;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ProjetoService {
 
-    private final ProjetoRepository projetoRepository;
+    private static final int TAMANHO_LOTE_IMPORTACAO = 200;
 
-    public ProjetoService(ProjetoRepository projetoRepository) {
+    private final ProjetoRepository projetoRepository;
+    private final IndiceProjetoService indiceProjetoService;
+    private final NotificacaoService notificacaoService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProjetoService(ProjetoRepository projetoRepository, IndiceProjetoService indiceProjetoService,
+                          NotificacaoService notificacaoService, ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager) {
         this.projetoRepository = projetoRepository;
+        this.indiceProjetoService = indiceProjetoService;
+        this.notificacaoService = notificacaoService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
     public ProjetoDTO criarProjeto(CriarProjetoRequest request) {
+        Projeto projeto = montarProjeto(request);
+
+        Projeto projetoSalvo = projetoRepository.save(projeto);
+        indiceProjetoService.atualizarAposCommit(projetoSalvo);
+        return converterParaDTO(projetoSalvo);
+    }
+
+    /**
+     * Importa um array JSON de {@link CriarProjetoRequest} lido incrementalmente com o JsonParser do Jackson:
+     * só o lote corrente fica em memória, cada lote é gravado na sua própria transação e os registros
+     * inválidos (tipos errados, elementos que não são objetos, regras de negócio) são reportados pela posição
+     * no array, sem interromper os demais. Só um JSON sintaticamente quebrado encerra a leitura.
+     */
+    public ImportacaoProjetosDTO importarProjetos(InputStream entrada) {
+        List<ErroImportacaoDTO> erros = new ArrayList<>();
+        List<Projeto> lote = new ArrayList<>(TAMANHO_LOTE_IMPORTACAO);
+        List<Integer> indicesLote = new ArrayList<>(TAMANHO_LOTE_IMPORTACAO);
+        int total = 0;
+        int importados = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidacaoException("O corpo da importação deve ser um array JSON de projetos");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "array de projetos não terminado");
+                }
+                // Lê o elemento inteiro, de qualquer tipo; a conversão de cada registro falha isoladamente
+                JsonNode registro = parser.readValueAsTree();
+                int indice = total++;
+                try {
+                    if (registro == null || !registro.isObject()) {
+                        throw new ValidacaoException("O registro deve ser um objeto JSON");
+                    }
+                    CriarProjetoRequest request = objectMapper.treeToValue(registro, CriarProjetoRequest.class);
+                    lote.add(montarProjeto(request));
+                    indicesLote.add(indice);
+                } catch (ValidacaoException e) {
+                    erros.add(new ErroImportacaoDTO(indice, e.getMessage()));
+                } catch (JsonProcessingException e) {
+                    erros.add(new ErroImportacaoDTO(indice, "Registro inválido: " + e.getOriginalMessage()));
+                }
+
+                if (lote.size() == TAMANHO_LOTE_IMPORTACAO) {
+                    importados += gravarLote(lote, indicesLote, erros);
+                }
+            }
+        } catch (IOException e) {
+            // Erro de sintaxe: aponta o elemento que estava sendo lido
+            erros.add(new ErroImportacaoDTO(total, "JSON inválido: " + e.getMessage()));
+        }
+
+        importados += gravarLote(lote, indicesLote, erros);
+
+        return ImportacaoProjetosDTO.builder()
+                .total(total)
+                .importados(importados)
+                .erros(erros)
+                .build();
+    }
+
+    private int gravarLote(List<Projeto> lote, List<Integer> indicesLote, List<ErroImportacaoDTO> erros) {
+        if (lote.isEmpty()) return 0;
+
+        int gravados;
+        try {
+            transactionTemplate.executeWithoutResult(status -> salvarEIndexar(lote));
+            gravados = lote.size();
+        } catch (RuntimeException falhaLote) {
+            // O lote inteiro voltou; grava um a um para apontar exatamente quais registros falharam
+            gravados = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                Projeto projeto = lote.get(i);
+                // Desfaz o estado deixado pela tentativa anterior (id gerado e coleções já ligadas à sessão)
+                projeto.setId(null);
+                projeto.setVersao(0);
+                if (projeto.getEmailsParticipantes() != null) {
+                    projeto.setEmailsParticipantes(new LinkedHashSet<>(projeto.getEmailsParticipantes()));
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> salvarEIndexar(List.of(projeto)));
+                    gravados++;
+                } catch (RuntimeException e) {
+                    erros.add(new ErroImportacaoDTO(indicesLote.get(i), "Falha ao gravar: " + e.getMessage()));
+                }
+            }
+        }
+
+        lote.clear();
+        indicesLote.clear();
+        return gravados;
+    }
+
+    private void salvarEIndexar(List<Projeto> projetos) {
+        for (Projeto salvo : projetoRepository.saveAll(projetos)) {
+            indiceProjetoService.atualizarAposCommit(salvo);
+        }
+    }
+
+    // Valida e converte numa única passada: cada data e número é lido uma única vez
+    private Projeto montarProjeto(CriarProjetoRequest request) {
         validarDadosProjeto(request);
 
-        Projeto projeto = new Projeto();
-        projeto.setTitulo(request.getTitulo());
-        projeto.setDescricao(request.getDescricao());
-        projeto.setObjetivos(request.getObjetivos());
-        projeto.setJustificativa(request.getJustificativa());
+        LocalDate dataInicio = lerData(request.getDataInicio());
+        LocalDate dataTermino = lerData(request.getDataTermino());
 
-        if (request.getDataInicio() != null && !request.getDataInicio().isEmpty()) {
-            projeto.setDataInicio(LocalDate.parse(request.getDataInicio(), DateTimeFormatter.ISO_DATE));
+        if (dataInicio != null && dataTermino != null && !dataTermino.isAfter(dataInicio)) {
+            throw new ValidacaoException("A data de término deve ser posterior à data de início");
         }
 
-        if (request.getDataTermino() != null && !request.getDataTermino().isEmpty()) {
-            projeto.setDataTermino(LocalDate.parse(request.getDataTermino(), DateTimeFormatter.ISO_DATE));
+        if (!request.isAceitouTermos()) {
+            throw new ValidacaoException("Você deve aceitar os termos e condições");
         }
 
+        Projeto projeto = new Projeto();
+        projeto.setTitulo(request.getTitulo());
+        projeto.setDescricao(request.getDescricao());
+        projeto.setObjetivos(request.getObjetivos());
+        projeto.setJustificativa(request.getJustificativa());
+        projeto.setDataInicio(dataInicio);
+        projeto.setDataTermino(dataTermino);
         projeto.setAreaConhecimento(request.getAreaConhecimento());
         projeto.setPossuiOrcamento(request.isPossuiOrcamento());
 
         if (request.isPossuiOrcamento() && request.getOrcamento() != null && !request.getOrcamento().isEmpty()) {
-            projeto.setOrcamento(Double.parseDouble(request.getOrcamento().replace(",", ".")));
+            try {
+                projeto.setOrcamento(Double.parseDouble(request.getOrcamento().replace(",", ".")));
+            } catch (NumberFormatException e) {
+                throw new ValidacaoException("Orçamento inválido: " + request.getOrcamento());
+            }
         }
 
         projeto.setUrlEdital(request.getUrlEdital());
@@ -54,7 +201,11 @@ public class ProjetoService {
         projeto.setTipoProjeto(request.getTipoProjeto());
 
         if (request.getLimiteParticipantes() != null && !request.getLimiteParticipantes().isEmpty()) {
-            projeto.setLimiteParticipantes(Integer.parseInt(request.getLimiteParticipantes()));
+            try {
+                projeto.setLimiteParticipantes(Integer.parseInt(request.getLimiteParticipantes()));
+            } catch (NumberFormatException e) {
+                throw new ValidacaoException("Limite de participantes inválido: " + request.getLimiteParticipantes());
+            }
         }
 
         projeto.setPublicoAlvo(request.getPublicoAlvo());
@@ -63,15 +214,23 @@ public class ProjetoService {
         projeto.setPalavrasChave(request.getPalavrasChave());
 
         if (request.getEmailsParticipantes() != null && !request.getEmailsParticipantes().isEmpty()) {
-            List<String> emails = Arrays.stream(request.getEmailsParticipantes().split("[,\n]"))
+            Set<String> emails = Arrays.stream(request.getEmailsParticipantes().split("[,\n]"))
                     .map(String::trim)
                     .filter(email -> !email.isEmpty())
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
             projeto.setEmailsParticipantes(emails);
         }
 
-        Projeto projetoSalvo = projetoRepository.save(projeto);
-        return converterParaDTO(projetoSalvo);
+        return projeto;
+    }
+
+    private LocalDate lerData(String valor) {
+        if (valor == null || valor.isEmpty()) return null;
+        try {
+            return LocalDate.parse(valor, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new ValidacaoException("Data inválida: " + valor);
+        }
     }
 
     private void validarDadosProjeto(CriarProjetoRequest request) {
@@ -94,26 +253,12 @@ public class ProjetoService {
         if (request.getTipoProjeto() == null || request.getTipoProjeto().isEmpty()) {
             throw new ValidacaoException("Selecione o tipo de projeto");
         }
-
-        if (request.getDataInicio() != null && !request.getDataInicio().isEmpty() &&
-                request.getDataTermino() != null && !request.getDataTermino().isEmpty()) {
-
-            LocalDate inicio = LocalDate.parse(request.getDataInicio(), DateTimeFormatter.ISO_DATE);
-            LocalDate termino = LocalDate.parse(request.getDataTermino(), DateTimeFormatter.ISO_DATE);
-
-            if (termino.isBefore(inicio) || termino.isEqual(inicio)) {
-                throw new ValidacaoException("A data de término deve ser posterior à data de início");
-            }
-        }
-
-        if (!request.isAceitouTermos()) {
-            throw new ValidacaoException("Você deve aceitar os termos e condições");
-        }
     }
 
     private ProjetoDTO converterParaDTO(Projeto projeto) {
         return ProjetoDTO.builder()
                 .id(projeto.getId())
+                .versao(projeto.getVersao())
                 .titulo(projeto.getTitulo())
                 .descricao(projeto.getDescricao())
                 .objetivos(projeto.getObjetivos())
@@ -131,7 +276,8 @@ public class ProjetoService {
                 .metodologia(projeto.getMetodologia())
                 .resultadosEsperados(projeto.getResultadosEsperados())
                 .palavrasChave(projeto.getPalavrasChave())
-                .emailsParticipantes(projeto.getEmailsParticipantes())
+                .emailsParticipantes(projeto.getEmailsParticipantes() == null ? null
+                        : new ArrayList<>(projeto.getEmailsParticipantes()))
                 .build();
     }
 
@@ -140,6 +286,11 @@ public class ProjetoService {
         Projeto projeto = projetoRepository.findById(id)
                 .orElseThrow(() -> new ValidacaoException("Projeto não encontrado"));
 
+        // Controle otimista: o cliente envia a versão que leu; a checagem final é feita pelo @Version no UPDATE
+        if (request.getVersao() != null && request.getVersao() != projeto.getVersao()) {
+            throw new ObjectOptimisticLockingFailureException(Projeto.class, id);
+        }
+
         if (request.getTitulo() != null) projeto.setTitulo(request.getTitulo());
         if (request.getDescricao() != null) projeto.setDescricao(request.getDescricao());
         if (request.getObjetivos() != null) projeto.setObjetivos(request.getObjetivos());
@@ -157,17 +308,82 @@ public class ProjetoService {
         if (request.getMetodologia() != null) projeto.setMetodologia(request.getMetodologia());
         if (request.getResultadosEsperados() != null) projeto.setResultadosEsperados(request.getResultadosEsperados());
         if (request.getPalavrasChave() != null) projeto.setPalavrasChave(request.getPalavrasChave());
-        if (request.getEmailsParticipantes() != null) projeto.setEmailsParticipantes(request.getEmailsParticipantes());
+        if (request.getEmailsParticipantes() != null) {
+            projeto.setEmailsParticipantes(sincronizarColecao(projeto.getEmailsParticipantes(),
+                    request.getEmailsParticipantes()));
+        }
 
         Projeto atualizado = projetoRepository.save(projeto);
+        indiceProjetoService.atualizarAposCommit(atualizado);
         return converterParaDTO(atualizado);
     }
 
+    // Sem os campos TEXT: não dispara a carga do grupo "conteudo" (usado em mudanças de status)
+    private ProjetoDTO converterParaDTOSemConteudo(Projeto projeto) {
+        return ProjetoDTO.builder()
+                .id(projeto.getId())
+                .versao(projeto.getVersao())
+                .titulo(projeto.getTitulo())
+                .dataInicio(projeto.getDataInicio())
+                .dataTermino(projeto.getDataTermino())
+                .areaConhecimento(projeto.getAreaConhecimento())
+                .possuiOrcamento(projeto.isPossuiOrcamento())
+                .orcamento(projeto.getOrcamento())
+                .urlEdital(projeto.getUrlEdital())
+                .aceitouTermos(projeto.isAceitouTermos())
+                .tipoProjeto(projeto.getTipoProjeto())
+                .limiteParticipantes(projeto.getLimiteParticipantes())
+                .publicoAlvo(projeto.getPublicoAlvo())
+                .palavrasChave(projeto.getPalavrasChave())
+                .build();
+    }
+
+    private ProjetoDTO converterResumoParaDTO(ProjetoResumo resumo, List<String> emails) {
+        return ProjetoDTO.builder()
+                .id(resumo.getId())
+                .versao(resumo.getVersao())
+                .titulo(resumo.getTitulo())
+                .descricao(resumo.getDescricao())
+                .dataInicio(resumo.getDataInicio())
+                .dataTermino(resumo.getDataTermino())
+                .areaConhecimento(resumo.getAreaConhecimento())
+                .possuiOrcamento(resumo.isPossuiOrcamento())
+                .orcamento(resumo.getOrcamento())
+                .urlEdital(resumo.getUrlEdital())
+                .aceitouTermos(resumo.isAceitouTermos())
+                .tipoProjeto(resumo.getTipoProjeto())
+                .limiteParticipantes(resumo.getLimiteParticipantes())
+                .publicoAlvo(resumo.getPublicoAlvo())
+                .palavrasChave(resumo.getPalavrasChave())
+                .emailsParticipantes(emails)
+                .build();
+    }
+
+    private Map<Long, List<String>> agruparEmails(List<Object[]> linhas) {
+        Map<Long, List<String>> emailsPorProjeto = new HashMap<>();
+        for (Object[] linha : linhas) {
+            emailsPorProjeto.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((String) linha[1]);
+        }
+        return emailsPorProjeto;
+    }
+
+    // Altera a coleção gerenciada no lugar, para o Hibernate emitir só os DELETE/INSERT das linhas que mudaram
+    private static Set<String> sincronizarColecao(Set<String> atual, Collection<String> novos) {
+        if (atual == null) {
+            return new LinkedHashSet<>(novos);
+        }
+        Set<String> desejados = new LinkedHashSet<>(novos);
+        atual.retainAll(desejados);
+        atual.addAll(desejados);
+        return atual;
+    }
+
     @Transactional(readOnly = true)
     public List<ProjetoDTO> listarTodos() {
-        return projetoRepository.findAll()
+        Map<Long, List<String>> emails = agruparEmails(projetoRepository.listarTodosEmails());
+        return projetoRepository.listarResumos()
                 .stream()
-                .map(this::converterParaDTO)
+                .map(resumo -> converterResumoParaDTO(resumo, emails.getOrDefault(resumo.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -176,6 +392,7 @@ public class ProjetoService {
         Projeto projeto = projetoRepository.findById(id)
                 .orElseThrow(() -> new ValidacaoException("Projeto não encontrado"));
         projetoRepository.delete(projeto);
+        indiceProjetoService.removerAposCommit(id);
     }
 
     @Transactional
@@ -185,7 +402,9 @@ public class ProjetoService {
 
         projeto.setStatus(StatusProjeto.APROVADO);
         Projeto atualizado = projetoRepository.save(projeto);
-        return converterParaDTO(atualizado);
+        notificacaoService.notificarProjeto(atualizado, "aprovado");
+        indiceProjetoService.atualizarAposCommit(atualizado);
+        return converterParaDTOSemConteudo(atualizado);
     }
 
     @Transactional
@@ -195,7 +414,42 @@ public class ProjetoService {
 
         projeto.setStatus(StatusProjeto.REJEITADO);
         Projeto atualizado = projetoRepository.save(projeto);
-        return converterParaDTO(atualizado);
+        notificacaoService.notificarProjeto(atualizado, "rejeitado");
+        indiceProjetoService.atualizarAposCommit(atualizado);
+        return converterParaDTOSemConteudo(atualizado);
+    }
+
+    @Transactional(readOnly = true)
+    public BuscaProjetoDTO buscarPorPalavrasChave(String consulta, String area, String tipo, StatusProjeto status,
+                                                  int pagina, int tamanho) {
+        if (pagina < 0 || tamanho < 1 || tamanho > 100) {
+            throw new ValidacaoException("Paginação inválida: página >= 0 e tamanho entre 1 e 100");
+        }
+
+        IndiceProjetoService.Resultado resultado =
+                indiceProjetoService.buscar(consulta, area, tipo, status, pagina, tamanho);
+
+        List<Long> ids = Arrays.stream(resultado.ids()).boxed().collect(Collectors.toList());
+        Map<Long, ProjetoResumo> porId = new HashMap<>();
+        Map<Long, List<String>> emails = ids.isEmpty() ? Map.of()
+                : agruparEmails(projetoRepository.listarEmailsPorProjetos(ids));
+        if (!ids.isEmpty()) {
+            projetoRepository.listarResumosPorIds(ids).forEach(p -> porId.put(p.getId(), p));
+        }
+
+        List<ProjetoDTO> projetos = ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .map(resumo -> converterResumoParaDTO(resumo, emails.getOrDefault(resumo.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        return BuscaProjetoDTO.builder()
+                .total(resultado.total())
+                .pagina(pagina)
+                .tamanho(tamanho)
+                .projetos(projetos)
+                .facetas(resultado.facetas())
+                .build();
     }
 
     @Transactional(readOnly = true)
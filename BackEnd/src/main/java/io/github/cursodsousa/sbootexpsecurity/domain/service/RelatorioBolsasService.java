@@ -0,0 +1,169 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.LinhaRelatorioBolsasDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.RelatorioBolsasDTO;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaRepository;
+import jakarta.validation.ValidationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Projeção mensal das bolsas de monitoria por curso, semestre e mês.
+ * O banco agrupa as monitorias por curso, semestre e período (quase todas de um semestre têm as mesmas datas),
+ * e cada grupo é distribuído nos meses do período, proporcionalmente aos dias ativos em cada mês.
+ * Monitorias reprovadas ou canceladas não entram. Os relatórios ficam em cache até a próxima alteração.
+ */
+@Service
+public class RelatorioBolsasService {
+
+    private static final Set<StatusMonitoria> SEM_BOLSA = EnumSet.of(StatusMonitoria.REPROVADA, StatusMonitoria.CANCELADA);
+    private static final int MAXIMO_RELATORIOS_EM_CACHE = 200;
+    private static final int MAXIMO_MESES = 60;
+
+    private final MonitoriaRepository monitoriaRepository;
+    private final CatalogoService catalogoService;
+    private final Map<Filtro, RelatorioBolsasDTO> cache = new ConcurrentHashMap<>();
+    // Incrementada a cada invalidação; relatórios calculados a partir de leituras anteriores não entram no cache
+    private final AtomicLong geracao = new AtomicLong();
+
+    public RelatorioBolsasService(MonitoriaRepository monitoriaRepository, CatalogoService catalogoService) {
+        this.monitoriaRepository = monitoriaRepository;
+        this.catalogoService = catalogoService;
+    }
+
+    private record Filtro(Long cursoId, String semestre, YearMonth de, YearMonth ate) {
+    }
+
+    private record Chave(Long cursoId, String semestre, YearMonth mes) {
+    }
+
+    private static final class Acumulado {
+        private BigDecimal valor = BigDecimal.ZERO;
+        private int monitorias;
+    }
+
+    @Transactional(readOnly = true)
+    public RelatorioBolsasDTO gerar(Long cursoId, String semestre, YearMonth de, YearMonth ate) {
+        if (de == null || ate == null) {
+            throw new ValidationException("Informe os meses inicial e final");
+        }
+        if (ate.isBefore(de)) {
+            throw new ValidationException("O mês final deve ser igual ou posterior ao mês inicial");
+        }
+        if (ChronoUnit.MONTHS.between(de, ate) >= MAXIMO_MESES) {
+            throw new ValidationException("O relatório pode ter no máximo " + MAXIMO_MESES + " meses");
+        }
+
+        Filtro filtro = new Filtro(cursoId, semestre == null || semestre.isBlank() ? null : semestre.trim(), de, ate);
+        RelatorioBolsasDTO relatorio = cache.get(filtro);
+        if (relatorio == null) {
+            long geracaoLeitura = geracao.get();
+            relatorio = calcular(filtro);
+            guardar(filtro, relatorio, geracaoLeitura);
+        }
+        return relatorio;
+    }
+
+    // Conferida de novo após o put: uma invalidação entre a conferência e o put retira a entrada recém-gravada
+    private void guardar(Filtro filtro, RelatorioBolsasDTO relatorio, long geracaoLeitura) {
+        if (geracao.get() != geracaoLeitura) return;
+        if (cache.size() >= MAXIMO_RELATORIOS_EM_CACHE) cache.clear();
+        cache.put(filtro, relatorio);
+        if (geracao.get() != geracaoLeitura) {
+            cache.remove(filtro, relatorio);
+        }
+    }
+
+    public void invalidarAposCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar();
+                }
+            });
+        } else {
+            invalidar();
+        }
+    }
+
+    private void invalidar() {
+        geracao.incrementAndGet();
+        cache.clear();
+    }
+
+    private RelatorioBolsasDTO calcular(Filtro filtro) {
+        LocalDate inicioJanela = filtro.de().atDay(1);
+        LocalDate fimJanela = filtro.ate().atEndOfMonth();
+        List<Object[]> grupos = monitoriaRepository.somarBolsas(filtro.cursoId(), filtro.semestre(),
+                inicioJanela, fimJanela, SEM_BOLSA);
+
+        Map<Chave, Acumulado> porMes = new TreeMap<>(Comparator
+                .comparing(Chave::mes)
+                .thenComparing(Chave::cursoId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Chave::semestre, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        for (Object[] grupo : grupos) {
+            Long cursoId = (Long) grupo[0];
+            String semestre = (String) grupo[1];
+            LocalDate inicio = max((LocalDate) grupo[2], inicioJanela);
+            LocalDate termino = min((LocalDate) grupo[3], fimJanela);
+            BigDecimal soma = (BigDecimal) grupo[4];
+            int quantidade = ((Number) grupo[5]).intValue();
+
+            for (YearMonth mes = YearMonth.from(inicio); !mes.isAfter(YearMonth.from(termino)); mes = mes.plusMonths(1)) {
+                long diasAtivos = ChronoUnit.DAYS.between(max(inicio, mes.atDay(1)), min(termino, mes.atEndOfMonth())) + 1;
+                BigDecimal valor = soma.multiply(BigDecimal.valueOf(diasAtivos))
+                        .divide(BigDecimal.valueOf(mes.lengthOfMonth()), 6, RoundingMode.HALF_UP);
+
+                Acumulado acumulado = porMes.computeIfAbsent(new Chave(cursoId, semestre, mes), c -> new Acumulado());
+                acumulado.valor = acumulado.valor.add(valor);
+                acumulado.monitorias += quantidade;
+            }
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        Map<String, BigDecimal> totalPorMes = new LinkedHashMap<>();
+        List<LinhaRelatorioBolsasDTO> linhas = new ArrayList<>();
+        for (Map.Entry<Chave, Acumulado> entrada : porMes.entrySet()) {
+            Chave chave = entrada.getKey();
+            BigDecimal valor = entrada.getValue().valor.setScale(2, RoundingMode.HALF_UP);
+            total = total.add(valor);
+            totalPorMes.merge(chave.mes().toString(), valor, BigDecimal::add);
+            linhas.add(LinhaRelatorioBolsasDTO.builder()
+                    .cursoId(chave.cursoId())
+                    .cursoNome(catalogoService.nomeCurso(chave.cursoId()))
+                    .semestre(chave.semestre())
+                    .mes(chave.mes().toString())
+                    .monitorias(entrada.getValue().monitorias)
+                    .valor(valor)
+                    .build());
+        }
+
+        return RelatorioBolsasDTO.builder()
+                .total(total)
+                .totalPorMes(Collections.unmodifiableMap(totalPorMes))
+                .linhas(List.copyOf(linhas))
+                .build();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
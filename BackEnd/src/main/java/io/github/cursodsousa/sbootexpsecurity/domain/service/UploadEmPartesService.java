@@ -0,0 +1,448 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.DocumentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.IniciarUploadDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UploadSessaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.config.ValidacaoException;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusUpload;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UploadSessao;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.UploadSessaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upload retomável em partes: iniciar → enviar parte N (em qualquer ordem, com SHA-256 da parte) → concluir.
+ * Cada parte é escrita direto na sua posição do arquivo parcial (escrita posicional) enquanto o checksum é
+ * calculado, com a faixa de bytes da parte travada; o bit da parte só é ligado se o checksum conferir. O SHA-256
+ * do arquivo inteiro avança junto com as partes contíguas, e concluir não precisa reler o arquivo para o hash.
+ */
+@Service
+public class UploadEmPartesService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadEmPartesService.class);
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final UploadSessaoRepository uploadSessaoRepository;
+    private final DocumentoService documentoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path diretorioParciais;
+    // SHA-256 em andamento de cada upload deste nó (o arquivo parcial também é local)
+    private final Map<String, HashMontagem> hashes = new ConcurrentHashMap<>();
+
+    @Value("${app.upload.tamanho-chunk:8388608}")
+    private int tamanhoChunk;
+    @Value("${app.upload.tamanho-maximo:2147483648}")
+    private long tamanhoMaximo;
+    @Value("${app.upload.validade-horas:24}")
+    private long validadeHoras;
+
+    public UploadEmPartesService(UploadSessaoRepository uploadSessaoRepository, DocumentoService documentoService,
+                                 PlatformTransactionManager transactionManager) {
+        this.uploadSessaoRepository = uploadSessaoRepository;
+        this.documentoService = documentoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.diretorioParciais = documentoService.getDiretorioTemporario();
+    }
+
+    // Hash das partes 0..proximaParte-1, na ordem do arquivo
+    private static final class HashMontagem {
+        private final MessageDigest sha256 = sha256();
+        private int proximaParte;
+    }
+
+    @Transactional
+    public UploadSessaoDTO iniciar(IniciarUploadDTO dto) {
+        if (dto.getNomeArquivo() == null || dto.getNomeArquivo().isBlank()) {
+            throw new ValidacaoException("Informe o nome do arquivo");
+        }
+        if (dto.getTamanho() == null || dto.getTamanho() <= 0) {
+            throw new ValidacaoException("Informe o tamanho do arquivo");
+        }
+        if (dto.getTamanho() > tamanhoMaximo) {
+            throw new ValidacaoException("Arquivo excede o tamanho máximo de " + tamanhoMaximo + " bytes");
+        }
+
+        int totalChunks = (int) ((dto.getTamanho() + tamanhoChunk - 1) / tamanhoChunk);
+        UploadSessao sessao = UploadSessao.builder()
+                .nomeArquivo(dto.getNomeArquivo())
+                .tipoArquivo(dto.getTipoArquivo())
+                .tamanhoTotal(dto.getTamanho())
+                .tamanhoChunk(tamanhoChunk)
+                .totalChunks(totalChunks)
+                .chunksRecebidos(new byte[0])
+                .status(StatusUpload.ABERTO)
+                .criadoEm(LocalDateTime.now())
+                .build();
+        sessao = uploadSessaoRepository.save(sessao);
+        criarParcial(sessao.getId(), dto.getTamanho());
+        return converterParaDTO(sessao);
+    }
+
+    @Transactional(readOnly = true)
+    public UploadSessaoDTO consultar(String id) {
+        return converterParaDTO(buscar(id));
+    }
+
+    /**
+     * O corpo é escrito na posição final da parte, fora de transação, com a faixa de bytes travada: outro envio da
+     * mesma parte é recusado enquanto este não termina, e uma parte já conferida não é sobrescrita. Só o mapa de
+     * partes é atualizado sob o lock da sessão.
+     */
+    public UploadSessaoDTO receberChunk(String id, int indice, String checksum, InputStream corpo) {
+        UploadSessao sessao = buscar(id);
+        validarAberta(sessao);
+        if (indice < 0 || indice >= sessao.getTotalChunks()) {
+            throw new ValidacaoException("Parte inexistente: " + indice);
+        }
+        if (checksum == null || checksum.isBlank()) {
+            throw new ValidacaoException("Informe o SHA-256 da parte no cabeçalho X-Checksum-SHA256");
+        }
+
+        long posicao = (long) indice * sessao.getTamanhoChunk();
+        long esperado = Math.min(sessao.getTamanhoChunk(), sessao.getTamanhoTotal() - posicao);
+        try (FileChannel canal = FileChannel.open(arquivoParcial(id), StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock trava = travarParte(canal, indice, posicao, esperado)) {
+            BitSet recebidos = BitSet.valueOf(uploadSessaoRepository.buscarPartes(id));
+            if (!recebidos.get(indice)) {
+                String calculado = gravarParte(canal, posicao, esperado, corpo);
+                if (!calculado.equalsIgnoreCase(checksum.trim())) {
+                    throw new ValidacaoException("Checksum da parte " + indice + " não confere; reenvie a parte");
+                }
+                recebidos = marcarRecebida(id, indice);
+                try {
+                    avancarHash(sessao, canal, recebidos);
+                } catch (IOException e) {
+                    // A parte já está registrada; sem o hash em andamento, concluir lê o arquivo inteiro
+                    log.warn("Falha ao calcular o hash do upload {}", id, e);
+                }
+            }
+            return converterParaDTO(sessao, recebidos, StatusUpload.ABERTO);
+        } catch (NoSuchFileException e) {
+            throw new ValidacaoException("Upload não encontrado neste servidor");
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao gravar parte do upload", e);
+        }
+    }
+
+    // concluir fecha a sessão sob o mesmo lock: depois dele nenhuma parte é marcada
+    private BitSet marcarRecebida(String id, int indice) {
+        return transactionTemplate.execute(status -> {
+            byte[] partes = uploadSessaoRepository.buscarPartesAbertasParaAtualizar(id);
+            if (partes == null) {
+                throw new ValidacaoException("Upload já concluído");
+            }
+            BitSet recebidos = BitSet.valueOf(partes);
+            recebidos.set(indice);
+            uploadSessaoRepository.atualizarPartes(id, recebidos.toByteArray(), LocalDateTime.now());
+            return recebidos;
+        });
+    }
+
+    /**
+     * Fecha a sessão (CONCLUINDO) numa transação curta e só então envia o arquivo ao armazenamento, sem segurar
+     * o lock da sessão durante o envio. O registro recebe um hard link do arquivo parcial, que ele pode comprimir,
+     * mover ou apagar: o .part só é removido depois do commit e, se o registro falhar, a sessão volta a ABERTO
+     * com as partes intactas para nova tentativa.
+     */
+    public DocumentoDTO concluir(String id) {
+        UploadSessao sessao = transactionTemplate.execute(status -> {
+            UploadSessao atual = uploadSessaoRepository.buscarParaAtualizar(id)
+                    .orElseThrow(() -> new RuntimeException("Upload não encontrado"));
+            validarAberta(atual);
+
+            List<Integer> pendentes = partesPendentes(atual);
+            if (!pendentes.isEmpty()) {
+                throw new ValidacaoException("Upload incompleto: faltam " + pendentes.size() + " parte(s)");
+            }
+            atual.setStatus(StatusUpload.CONCLUINDO);
+            atual.setAtualizadoEm(LocalDateTime.now());
+            return atual;
+        });
+
+        DocumentoDTO documento;
+        Path registro = arquivoRegistro(id);
+        try {
+            vincular(arquivoParcial(id), registro);
+            documento = documentoService.registrarArquivo(registro, sessao.getNomeArquivo(),
+                    sessao.getTipoArquivo(), hashCompleto(sessao));
+        } catch (RuntimeException e) {
+            apagarSemFalhar(registro);
+            reabrir(sessao);
+            throw e;
+        }
+        alterarStatus(id, StatusUpload.CONCLUIDO);
+        apagarSemFalhar(registro);
+        apagarSemFalhar(arquivoParcial(id));
+        return documento;
+    }
+
+    // Hard link (sem copiar bytes); onde o sistema de arquivos não oferece, uma cópia
+    private static void vincular(Path parcial, Path registro) {
+        try {
+            Files.deleteIfExists(registro);
+            try {
+                Files.createLink(registro, parcial);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.copy(parcial, registro);
+            }
+            // A limpeza de temporários olha a data: a do .part pode ser a da última parte, de horas atrás
+            Files.setLastModifiedTime(registro, FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            throw new ValidacaoException("Arquivo do upload não encontrado neste servidor");
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao preparar o arquivo do upload", e);
+        }
+    }
+
+    // Se mesmo assim o arquivo parcial se perdeu, o mapa é zerado para o cliente reenviar todas as partes
+    private void reabrir(UploadSessao sessao) {
+        String id = sessao.getId();
+        boolean perdido = !Files.exists(arquivoParcial(id));
+        if (perdido) {
+            criarParcial(id, sessao.getTamanhoTotal());
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            UploadSessao atual = uploadSessaoRepository.buscarParaAtualizar(id)
+                    .orElseThrow(() -> new RuntimeException("Upload não encontrado"));
+            atual.setStatus(StatusUpload.ABERTO);
+            if (perdido) atual.setChunksRecebidos(new byte[0]);
+            atual.setAtualizadoEm(LocalDateTime.now());
+        });
+    }
+
+    @Transactional
+    public void cancelar(String id) {
+        UploadSessao sessao = buscar(id);
+        uploadSessaoRepository.delete(sessao);
+        apagarParcial(id);
+        hashes.remove(id);
+    }
+
+    // Remove sessões sem atividade no prazo: não concluídas (upload abandonado, com o arquivo parcial) e concluídas
+    @Scheduled(fixedDelayString = "${app.upload.limpeza-intervalo-ms:3600000}")
+    @Transactional
+    public void limparExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(validadeHoras);
+        for (UploadSessao sessao : uploadSessaoRepository.buscarInativasDesde(limite)) {
+            if (sessao.getStatus() != StatusUpload.CONCLUIDO) {
+                apagarParcial(sessao.getId());
+            }
+            hashes.remove(sessao.getId());
+            uploadSessaoRepository.delete(sessao);
+        }
+    }
+
+    // Outro envio da mesma parte em andamento (nesta ou em outra JVM) recusa este
+    private static FileLock travarParte(FileChannel canal, int indice, long posicao, long tamanho) throws IOException {
+        FileLock trava;
+        try {
+            trava = canal.tryLock(posicao, tamanho, false);
+        } catch (OverlappingFileLockException e) {
+            trava = null;
+        }
+        if (trava == null) {
+            throw new ValidacaoException("Parte " + indice + " já está sendo enviada");
+        }
+        return trava;
+    }
+
+    // Escreve o corpo na posição da parte e devolve o SHA-256 calculado durante a escrita
+    private static String gravarParte(FileChannel canal, long posicao, long esperado, InputStream corpo)
+            throws IOException {
+        MessageDigest sha256 = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+        long gravados = 0;
+
+        ReadableByteChannel entrada = Channels.newChannel(corpo);
+        while (entrada.read(buffer) >= 0) {
+            if (gravados + buffer.position() > esperado) {
+                throw new ValidacaoException("Parte maior que o esperado (" + esperado + " bytes)");
+            }
+
+            buffer.flip();
+            sha256.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                gravados += canal.write(buffer, posicao + gravados);
+            }
+            buffer.clear();
+        }
+
+        if (gravados != esperado) {
+            throw new ValidacaoException("Parte com tamanho incorreto: esperado " + esperado + ", recebido " + gravados);
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /**
+     * Avança o SHA-256 do arquivo inteiro pelas partes contíguas já conferidas. Com envio em ordem, a parte recém
+     * escrita é relida do cache de páginas do sistema; uma parte que chegou fora de ordem é lida quando a lacuna
+     * antes dela é preenchida. Depois de um reinício o hash recomeça do início na próxima parte recebida.
+     */
+    private void avancarHash(UploadSessao sessao, FileChannel canal, BitSet recebidos) throws IOException {
+        HashMontagem montagem = hashes.computeIfAbsent(sessao.getId(), chave -> new HashMontagem());
+        synchronized (montagem) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+            while (montagem.proximaParte < sessao.getTotalChunks() && recebidos.get(montagem.proximaParte)) {
+                long inicio = (long) montagem.proximaParte * sessao.getTamanhoChunk();
+                long fim = Math.min(inicio + sessao.getTamanhoChunk(), sessao.getTamanhoTotal());
+                try {
+                    for (long posicao = inicio; posicao < fim; ) {
+                        buffer.clear().limit((int) Math.min(TAMANHO_BUFFER, fim - posicao));
+                        int lidos = canal.read(buffer, posicao);
+                        if (lidos < 0) throw new EOFException("Arquivo parcial menor que o esperado");
+                        buffer.flip();
+                        montagem.sha256.update(buffer);
+                        posicao += lidos;
+                    }
+                } catch (IOException e) {
+                    // Hash pela metade não serve: concluir volta a ler o arquivo inteiro
+                    hashes.remove(sessao.getId(), montagem);
+                    throw e;
+                }
+                montagem.proximaParte++;
+            }
+        }
+    }
+
+    // SHA-256 do arquivo montado ou null se não houver hash completo neste nó (o arquivo é lido ao registrar)
+    private String hashCompleto(UploadSessao sessao) {
+        BitSet todas = new BitSet(sessao.getTotalChunks());
+        todas.set(0, sessao.getTotalChunks());
+        try (FileChannel canal = FileChannel.open(arquivoParcial(sessao.getId()), StandardOpenOption.READ)) {
+            avancarHash(sessao, canal, todas);
+        } catch (IOException e) {
+            return null;
+        }
+        HashMontagem montagem = hashes.remove(sessao.getId());
+        if (montagem == null) return null;
+        synchronized (montagem) {
+            return HexFormat.of().formatHex(montagem.sha256.digest());
+        }
+    }
+
+    private void validarAberta(UploadSessao sessao) {
+        if (sessao.getStatus() == StatusUpload.CONCLUINDO) {
+            throw new ValidacaoException("Upload em conclusão");
+        }
+        if (sessao.getStatus() != StatusUpload.ABERTO) {
+            throw new ValidacaoException("Upload já concluído");
+        }
+    }
+
+    private void alterarStatus(String id, StatusUpload status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            UploadSessao sessao = uploadSessaoRepository.buscarParaAtualizar(id)
+                    .orElseThrow(() -> new RuntimeException("Upload não encontrado"));
+            sessao.setStatus(status);
+            sessao.setAtualizadoEm(LocalDateTime.now());
+        });
+    }
+
+    private UploadSessao buscar(String id) {
+        return uploadSessaoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Upload não encontrado"));
+    }
+
+    private Path arquivoParcial(String id) {
+        return diretorioParciais.resolve(id + ".part");
+    }
+
+    // Prefixo dos temporários: sobras de uma queda durante o registro vão para a limpeza de órfãos
+    private Path arquivoRegistro(String id) {
+        return diretorioParciais.resolve("upload-" + id + ".registro");
+    }
+
+    // Arquivo esparso já com o tamanho final: cada parte é escrita direto na sua posição
+    private void criarParcial(String id, long tamanho) {
+        try (RandomAccessFile arquivo = new RandomAccessFile(arquivoParcial(id).toFile(), "rw")) {
+            arquivo.setLength(tamanho);
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao preparar o arquivo do upload", e);
+        }
+    }
+
+    private static void apagarSemFalhar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Falha ao remover {}; fica para a limpeza de temporários", arquivo, e);
+        }
+    }
+
+    private void apagarParcial(String id) {
+        try {
+            Files.deleteIfExists(arquivoParcial(id));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao remover arquivo parcial", e);
+        }
+    }
+
+    private List<Integer> partesPendentes(UploadSessao sessao) {
+        return partesPendentes(BitSet.valueOf(sessao.getChunksRecebidos()), sessao.getTotalChunks());
+    }
+
+    private static List<Integer> partesPendentes(BitSet recebidos, int totalChunks) {
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = recebidos.nextClearBit(0); i < totalChunks; i = recebidos.nextClearBit(i + 1)) {
+            pendentes.add(i);
+        }
+        return pendentes;
+    }
+
+    private UploadSessaoDTO converterParaDTO(UploadSessao sessao) {
+        return converterParaDTO(sessao, BitSet.valueOf(sessao.getChunksRecebidos()), sessao.getStatus());
+    }
+
+    private UploadSessaoDTO converterParaDTO(UploadSessao sessao, BitSet recebidos, StatusUpload status) {
+        return UploadSessaoDTO.builder()
+                .id(sessao.getId())
+                .nomeArquivo(sessao.getNomeArquivo())
+                .tamanhoTotal(sessao.getTamanhoTotal())
+                .tamanhoChunk(sessao.getTamanhoChunk())
+                .totalChunks(sessao.getTotalChunks())
+                .chunksPendentes(partesPendentes(recebidos, sessao.getTotalChunks()))
+                .status(status.name())
+                .build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
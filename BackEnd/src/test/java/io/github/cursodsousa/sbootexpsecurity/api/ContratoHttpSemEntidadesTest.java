@@ -0,0 +1,95 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Garante que nenhuma entidade JPA entra ou sai pela camada HTTP: percorre o retorno e os corpos de requisição
+ * de todos os endpoints, incluindo genéricos (ResponseEntity, List, Map...) e os campos dos DTOs do projeto.
+ */
+class ContratoHttpSemEntidadesTest {
+
+    private static final String PACOTE_BASE = "io.github.cursodsousa.sbootexpsecurity";
+
+    @Test
+    void endpointsNaoExpoemEntidades() throws ClassNotFoundException {
+        List<Class<?>> controllers = controllers();
+        assertFalse(controllers.isEmpty(), "Nenhum controller encontrado em " + PACOTE_BASE);
+
+        List<String> violacoes = new ArrayList<>();
+        for (Class<?> controller : controllers) {
+            for (Method metodo : ReflectionUtils.getUniqueDeclaredMethods(controller)) {
+                if (!AnnotatedElementUtils.hasAnnotation(metodo, RequestMapping.class)) continue;
+
+                String endpoint = controller.getSimpleName() + "." + metodo.getName();
+                procurar(ResolvableType.forMethodReturnType(metodo), endpoint + " (retorno)", new HashSet<>(), violacoes);
+                for (int i = 0; i < metodo.getParameterCount(); i++) {
+                    MethodParameter parametro = new MethodParameter(metodo, i);
+                    if (parametro.hasParameterAnnotation(RequestBody.class)) {
+                        procurar(ResolvableType.forMethodParameter(parametro), endpoint + " (corpo)", new HashSet<>(), violacoes);
+                    }
+                }
+            }
+        }
+
+        assertTrue(violacoes.isEmpty(), "Entidades na camada HTTP:\n" + String.join("\n", violacoes));
+    }
+
+    private static List<Class<?>> controllers() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        List<Class<?>> controllers = new ArrayList<>();
+        for (BeanDefinition definicao : scanner.findCandidateComponents(PACOTE_BASE)) {
+            controllers.add(ClassUtils.forName(definicao.getBeanClassName(), ContratoHttpSemEntidadesTest.class.getClassLoader()));
+        }
+        return controllers;
+    }
+
+    private static void procurar(ResolvableType tipo, String caminho, Set<Class<?>> visitados, List<String> violacoes) {
+        for (ResolvableType generico : tipo.getGenerics()) {
+            procurar(generico, caminho, visitados, violacoes);
+        }
+        if (tipo.isArray()) {
+            procurar(tipo.getComponentType(), caminho, visitados, violacoes);
+        }
+
+        Class<?> classe = tipo.resolve();
+        if (classe == null || !visitados.add(classe)) return;
+        if (classe.isAnnotationPresent(Entity.class)) {
+            violacoes.add(caminho + ": " + classe.getSimpleName());
+            return;
+        }
+        if (!classe.getName().startsWith(PACOTE_BASE) || classe.isEnum()) return;
+
+        // DTO do projeto: os campos também são serializados
+        for (Class<?> atual = classe; atual != null && atual != Object.class; atual = atual.getSuperclass()) {
+            for (Field campo : atual.getDeclaredFields()) {
+                if (Modifier.isStatic(campo.getModifiers()) || campo.isSynthetic()) continue;
+                procurar(ResolvableType.forField(campo, tipo), caminho + " -> " + classe.getSimpleName() + "." + campo.getName(),
+                        visitados, violacoes);
+            }
+        }
+    }
+}
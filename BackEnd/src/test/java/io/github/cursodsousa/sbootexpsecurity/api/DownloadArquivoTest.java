@@ -0,0 +1,117 @@
+package io.github.cursodsousa.sbootexpsecurity.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DownloadArquivoTest {
+
+    private static final long TAMANHO = 1000;
+
+    @Test
+    void intervaloFechado() {
+        assertArrayEquals(new long[]{0, 99}, DownloadArquivo.interpretarRange("bytes=0-99", TAMANHO));
+        assertArrayEquals(new long[]{10, 10}, DownloadArquivo.interpretarRange("bytes= 10 - 10 ", TAMANHO));
+    }
+
+    @Test
+    void fimAlemDoArquivoEhLimitado() {
+        assertArrayEquals(new long[]{900, 999}, DownloadArquivo.interpretarRange("bytes=900-5000", TAMANHO));
+    }
+
+    @Test
+    void intervaloAberto() {
+        assertArrayEquals(new long[]{500, 999}, DownloadArquivo.interpretarRange("bytes=500-", TAMANHO));
+    }
+
+    @Test
+    void sufixo() {
+        assertArrayEquals(new long[]{900, 999}, DownloadArquivo.interpretarRange("bytes=-100", TAMANHO));
+        // Sufixo maior que o arquivo devolve o arquivo inteiro
+        assertArrayEquals(new long[]{0, 999}, DownloadArquivo.interpretarRange("bytes=-5000", TAMANHO));
+    }
+
+    // Array vazio: cabeçalho ignorado, resposta completa com 200
+    @Test
+    void cabecalhosIgnorados() {
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=0-9,20-29", TAMANHO));
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("items=0-9", TAMANHO));
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=10", TAMANHO));
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=a-b", TAMANHO));
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=-", TAMANHO));
+        // Fim antes do início é inválido, não insatisfazível
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=50-10", TAMANHO));
+        assertArrayEquals(new long[0], DownloadArquivo.interpretarRange("bytes=5000-2000", TAMANHO));
+    }
+
+    // null: 416 Range Not Satisfiable
+    @Test
+    void intervalosInsatisfaziveis() {
+        assertNull(DownloadArquivo.interpretarRange("bytes=1000-", TAMANHO));
+        assertNull(DownloadArquivo.interpretarRange("bytes=1000-1200", TAMANHO));
+        assertNull(DownloadArquivo.interpretarRange("bytes=-0", TAMANHO));
+        assertNull(DownloadArquivo.interpretarRange("bytes=0-", 0));
+    }
+
+    private static final Instant GRAVADO_EM = Instant.parse("2025-03-10T12:00:00.750Z");
+
+    @TempDir
+    Path pasta;
+
+    private MockHttpServletResponse baixar(MockHttpServletRequest request) throws IOException {
+        Path arquivo = Files.write(pasta.resolve("arquivo.bin"), new byte[(int) TAMANHO]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        DownloadArquivo.enviar(request, response, arquivo, "application/pdf", "arquivo.pdf", "abc123", GRAVADO_EM);
+        return response;
+    }
+
+    @Test
+    void lastModifiedVemDaGravacaoDoConteudo() throws IOException {
+        MockHttpServletResponse response = baixar(new MockHttpServletRequest("GET", "/"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(GRAVADO_EM.toEpochMilli() / 1000 * 1000, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void ifModifiedSinceSoValeSemIfNoneMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, GRAVADO_EM.toEpochMilli());
+        assertEquals(304, baixar(request).getStatus());
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"outra\"");
+        assertEquals(200, baixar(request).getStatus());
+
+        MockHttpServletRequest anterior = new MockHttpServletRequest("GET", "/");
+        anterior.addHeader(HttpHeaders.IF_MODIFIED_SINCE, GRAVADO_EM.minusSeconds(60).toEpochMilli());
+        assertEquals(200, baixar(anterior).getStatus());
+    }
+
+    @Test
+    void ifRangeAceitaDataDoLastModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "Mon, 10 Mar 2025 12:00:00 GMT");
+        MockHttpServletResponse response = baixar(request);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-9/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        // Data diferente: o cliente tem outra versão e recebe o arquivo inteiro
+        MockHttpServletRequest antiga = new MockHttpServletRequest("GET", "/");
+        antiga.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        antiga.addHeader(HttpHeaders.IF_RANGE, "Mon, 10 Mar 2025 11:00:00 GMT");
+        assertEquals(200, baixar(antiga).getStatus());
+    }
+}
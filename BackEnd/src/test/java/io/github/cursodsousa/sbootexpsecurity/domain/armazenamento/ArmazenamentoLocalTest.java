@@ -0,0 +1,81 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ArmazenamentoLocalTest {
+
+    private static final String HASH_A = "0a".repeat(32);
+    private static final String HASH_B = "f0".repeat(32);
+
+    @TempDir
+    Path raiz;
+
+    private ArmazenamentoLocal armazenamento() throws IOException {
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(raiz.toString());
+        for (String chave : List.of(HASH_A, HASH_B)) {
+            Path parcial = Files.writeString(armazenamento.diretorioTemporario().resolve(chave), chave);
+            armazenamento.gravar(chave, parcial);
+        }
+        // Layout plano antigo, ao lado dos diretórios internos
+        Files.writeString(raiz.resolve("relatorio-antigo.pdf"), "pdf");
+        Files.writeString(raiz.resolve("c3".repeat(32)), "hash plano");
+        Files.createDirectories(raiz.resolve(".miniaturas"));
+        Files.writeString(raiz.resolve(".miniaturas").resolve(HASH_A + ".png"), "png");
+        Files.writeString(armazenamento.diretorioTemporario().resolve("upload.part"), "parcial");
+        return armazenamento;
+    }
+
+    private static List<String> listarTudo(ArmazenamentoLocal armazenamento, int lote) throws IOException {
+        List<String> todas = new ArrayList<>();
+        String cursor = "";
+        while (true) {
+            List<String> chaves = armazenamento.listar(cursor, lote);
+            todas.addAll(chaves);
+            if (chaves.size() < lote) return todas;
+            cursor = chaves.get(chaves.size() - 1);
+        }
+    }
+
+    @Test
+    void listagemIncluiArquivosDoLayoutPlano() throws IOException {
+        ArmazenamentoLocal armazenamento = armazenamento();
+        Set<String> esperadas = Set.of(HASH_A, HASH_B, "c3".repeat(32), "relatorio-antigo.pdf");
+
+        for (int lote : new int[]{1, 2, 3, 10}) {
+            List<String> chaves = listarTudo(armazenamento, lote);
+            assertEquals(esperadas.size(), chaves.size(), "lote " + lote + ": " + chaves);
+            assertEquals(esperadas, Set.copyOf(chaves), "lote " + lote);
+        }
+    }
+
+    @Test
+    void arquivoMigradoNoMeioDaListagemNaoSeRepete() throws IOException {
+        ArmazenamentoLocal armazenamento = armazenamento();
+        List<String> primeira = armazenamento.listar("", 2);
+
+        armazenamento.migrarLayoutPlano(1);
+        List<String> restantes = new ArrayList<>(primeira);
+        String cursor = primeira.get(1);
+        List<String> chaves;
+        do {
+            chaves = armazenamento.listar(cursor, 2);
+            restantes.addAll(chaves);
+            if (!chaves.isEmpty()) cursor = chaves.get(chaves.size() - 1);
+        } while (chaves.size() == 2);
+
+        assertEquals(4, restantes.size(), restantes.toString());
+        assertEquals(4, Set.copyOf(restantes).size());
+        assertFalse(Files.exists(raiz.resolve("relatorio-antigo.pdf")));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.armazenamento;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArmazenamentoS3Test {
+
+    @Test
+    void lerListagemExtraiChavesEContinuacao() {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <ListBucketResult xmlns="http://s3.amazonaws.com/doc/2006-03-01/">
+                  <Name>bucket</Name>
+                  <Prefix>documentos/</Prefix>
+                  <KeyCount>2</KeyCount>
+                  <MaxKeys>2</MaxKeys>
+                  <IsTruncated>true</IsTruncated>
+                  <Contents>
+                    <Key>documentos/0a1b</Key>
+                    <LastModified>2024-01-01T00:00:00.000Z</LastModified>
+                    <Size>10</Size>
+                  </Contents>
+                  <Contents>
+                    <Key>documentos/a&amp;b&lt;c&gt;&quot;&apos;</Key>
+                    <Size>3</Size>
+                  </Contents>
+                </ListBucketResult>
+                """;
+
+        ArmazenamentoS3.Listagem listagem = ArmazenamentoS3.lerListagem(xml);
+
+        assertEquals(List.of("documentos/0a1b", "documentos/a&b<c>\"'"), listagem.chaves());
+        assertTrue(listagem.truncada());
+    }
+
+    @Test
+    void lerListagemVaziaEUltimaPagina() {
+        String xml = "<ListBucketResult><KeyCount>0</KeyCount><IsTruncated>false</IsTruncated></ListBucketResult>";
+
+        ArmazenamentoS3.Listagem listagem = ArmazenamentoS3.lerListagem(xml);
+
+        assertTrue(listagem.chaves().isEmpty());
+        assertFalse(listagem.truncada());
+    }
+
+    // &amp;lt; é o texto literal "&lt;", não "<"
+    @Test
+    void desescapaEntidadesUmaVezSo() {
+        String xml = "<Key>documentos/x&amp;lt;y</Key><IsTruncated>false</IsTruncated>";
+
+        assertEquals(List.of("documentos/x&lt;y"), ArmazenamentoS3.lerListagem(xml).chaves());
+    }
+}
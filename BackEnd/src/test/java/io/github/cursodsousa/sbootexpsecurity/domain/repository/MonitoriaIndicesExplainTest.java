@@ -0,0 +1,125 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Confere com EXPLAIN (MySQL) que a consulta de ids gerada pelo Hibernate a partir de MonitoriaSpecifications
+ * e MonitoriaRepositoryImpl.buscarIds usa o índice composto esperado ({@code key} do plano, não só
+ * {@code possible_keys}). O SQL é capturado por um StatementInspector e explicado com os mesmos parâmetros.
+ * <p>
+ * Precisa de um MySQL 8 ativo, como o SbootexpSecurityApplicationTests: localmente, {@code docker compose up -d mysql}
+ * antes do {@code mvn test}; no CI, o mesmo serviço mysql:8.0 do docker-compose.yml como container de serviço, com
+ * as credenciais do application.properties. Onde não houver banco, exclua a tag com
+ * {@code mvn test -DexcludedGroups=mysql}. Os dados de apoio são desfeitos no fim de cada teste.
+ */
+@Tag("mysql")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.github.cursodsousa.sbootexpsecurity.domain.repository.MonitoriaIndicesExplainTest$CapturaSql")
+@Transactional
+class MonitoriaIndicesExplainTest {
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    // Instanciado pelo Hibernate a partir do nome da classe
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            comandos.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MonitoriaRepository monitoriaRepository;
+
+    private long cursoId;
+    private long disciplinaId;
+
+    @BeforeEach
+    void popular() {
+        String sufixo = UUID.randomUUID().toString();
+        jdbcTemplate.update("insert into curso (nome) values (?)", "Curso explain " + sufixo);
+        cursoId = jdbcTemplate.queryForObject("select last_insert_id()", Long.class);
+        jdbcTemplate.update("insert into disciplina (nome) values (?)", "Disciplina explain " + sufixo);
+        disciplinaId = jdbcTemplate.queryForObject("select last_insert_id()", Long.class);
+
+        String[] status = {"PENDENTE", "APROVADA", "REPROVADA", "CANCELADA"};
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            linhas.add(new Object[]{cursoId, disciplinaId, "2025." + (i % 8), status[i % status.length], i % 3 == 0});
+        }
+        jdbcTemplate.batchUpdate("insert into monitoria (curso_id, disciplina_id, semestre, status, bolsa, carga_horaria, "
+                + "data_inicio, data_termino, horario_inicio, horario_termino, termos_aceitos) "
+                + "values (?, ?, ?, ?, ?, 12, '2025-03-01', '2025-07-01', '10:00', '12:00', true)", linhas);
+        CapturaSql.comandos.clear();
+    }
+
+    @Test
+    void filtroPorCursoSemestreEStatusUsaIndice() {
+        verificarIndice(cursoId, null, "2025.1", StatusMonitoria.APROVADA, null,
+                "idx_monitoria_curso_semestre_status");
+    }
+
+    @Test
+    void filtroPorDisciplinaESemestreUsaIndice() {
+        verificarIndice(null, disciplinaId, "2025.1", null, null, "idx_monitoria_disciplina_semestre_status");
+    }
+
+    @Test
+    void filtroPorStatusESemestreUsaIndice() {
+        verificarIndice(null, null, "2025.1", StatusMonitoria.PENDENTE, null, "idx_monitoria_status_semestre");
+    }
+
+    @Test
+    void filtroPorBolsaESemestreUsaIndice() {
+        verificarIndice(null, null, "2025.1", null, true, "idx_monitoria_bolsa_semestre_curso");
+    }
+
+    private void verificarIndice(Long curso, Long disciplina, String semestre, StatusMonitoria status, Boolean bolsa,
+                                 String indiceEsperado) {
+        monitoriaRepository.buscarIds(MonitoriaSpecifications.filtrar(curso, disciplina, semestre, status, bolsa),
+                PageRequest.of(0, TAMANHO_PAGINA));
+
+        // A primeira consulta é a de ids (a de contagem, se houver, vem depois)
+        String sql = CapturaSql.comandos.stream()
+                .filter(comando -> comando.toLowerCase().contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Consulta de ids não capturada: " + CapturaSql.comandos));
+
+        // Parâmetros na ordem de MonitoriaSpecifications.filtrar, seguidos do limite da página
+        Object[] parametros = Stream.of(curso, disciplina, semestre, status == null ? null : status.name(), bolsa,
+                        TAMANHO_PAGINA)
+                .filter(valor -> valor != null)
+                .toArray();
+        assertEquals(parametros.length, sql.chars().filter(c -> c == '?').count(),
+                "Parâmetros inesperados no SQL gerado: " + sql);
+
+        Map<String, Object> plano = jdbcTemplate.queryForList("explain " + sql, parametros).get(0);
+        assertEquals(indiceEsperado, plano.get("key"), "Índice não escolhido para " + sql + ": " + plano);
+        assertNotEquals("ALL", plano.get("type"), "Varredura completa: " + plano);
+    }
+}
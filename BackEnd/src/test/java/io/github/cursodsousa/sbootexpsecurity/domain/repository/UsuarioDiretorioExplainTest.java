@@ -0,0 +1,106 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Confere com EXPLAIN (MySQL) que a busca por prefixo do diretório de usuários faz um intervalo em cada índice
+ * (login, nome e e-mail) em vez de percorrer a tabela em ordem de login. Mesmo ambiente do
+ * MonitoriaIndicesExplainTest: {@code docker compose up -d mysql} antes do {@code mvn test}, ou
+ * {@code mvn test -DexcludedGroups=mysql} onde não houver banco.
+ */
+@Tag("mysql")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.github.cursodsousa.sbootexpsecurity.domain.repository.UsuarioDiretorioExplainTest$CapturaSql")
+@Transactional
+class UsuarioDiretorioExplainTest {
+
+    private static final int LIMITE = 21;
+
+    // Instanciado pelo Hibernate a partir do nome da classe
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            comandos.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private String prefixo;
+
+    // 400 usuários; só 4 casam o prefixo pelo login, 4 pelo nome e 4 pelo e-mail
+    @BeforeEach
+    void popular() {
+        prefixo = "zq" + UUID.randomUUID().toString().substring(0, 6);
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String sufixo = UUID.randomUUID().toString();
+            String login = (i % 100 == 0 ? prefixo : "") + "login-" + sufixo;
+            String nome = (i % 100 == 1 ? prefixo : "") + "Pessoa " + i;
+            String email = (i % 100 == 2 ? prefixo : "") + "pessoa-" + sufixo + "@exemplo.com";
+            linhas.add(new Object[]{UUID.randomUUID().toString(), login, nome, email});
+        }
+        jdbcTemplate.batchUpdate("insert into usuario (id, login, senha, nome, email, role) "
+                + "values (?, ?, 'x', ?, ?, 2)", linhas);
+        jdbcTemplate.execute("analyze table usuario");
+        CapturaSql.comandos.clear();
+    }
+
+    @Test
+    void buscaPorPrefixoUsaUmIndicePorColuna() {
+        List<Object[]> usuarios = usuarioRepository.listarDiretorioPorPrefixo(null, prefixo + "%", null, LIMITE);
+
+        List<String> logins = usuarios.stream().map(linha -> (String) linha[2]).toList();
+        assertEquals(12, logins.size());
+        assertEquals(logins.stream().sorted(Comparator.naturalOrder()).toList(), logins);
+
+        String sql = CapturaSql.comandos.stream()
+                .filter(comando -> comando.toLowerCase().contains("union"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Consulta do diretório não capturada: " + CapturaSql.comandos));
+
+        // Cada ramo: prefixo, role, role, depoisDe, depoisDe, limite; no fim, o limite da união
+        List<Object> parametros = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            parametros.addAll(Arrays.asList(prefixo + "%", null, null, null, null, LIMITE));
+        }
+        parametros.add(LIMITE);
+        assertEquals(parametros.size(), sql.chars().filter(c -> c == '?').count(),
+                "Parâmetros inesperados no SQL gerado: " + sql);
+
+        List<Map<String, Object>> plano = jdbcTemplate.queryForList("explain " + sql, parametros.toArray()).stream()
+                .filter(linha -> "usuario".equals(linha.get("table")))
+                .toList();
+        Set<Object> indices = plano.stream().map(linha -> linha.get("key")).collect(Collectors.toSet());
+        assertEquals(Set.of("uk_usuario_login", "idx_usuario_nome", "idx_usuario_email"), indices,
+                "Índices não escolhidos para " + sql + ": " + plano);
+        plano.forEach(linha -> assertNotEquals("ALL", linha.get("type"), "Varredura completa: " + linha));
+    }
+}
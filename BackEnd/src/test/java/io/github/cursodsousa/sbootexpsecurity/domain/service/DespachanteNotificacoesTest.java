@@ -0,0 +1,344 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Notificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusNotificacao;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.NotificacaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Envia lotes por SMTP de verdade, para um servidor mínimo aberto pelo próprio teste no lugar do Mailpit, e conta
+ * as entregas por destinatário. O banco é simulado em memória: as consultas devolvem cópias e só o que muda dentro
+ * de uma transação é gravado no commit, como no Hibernate.
+ */
+class DespachanteNotificacoesTest {
+
+    private static final String REMETENTE = "no-reply@bioconnect.local";
+
+    private ServidorSmtp smtp;
+    private final BancoFalso banco = new BancoFalso();
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        smtp = new ServidorSmtp();
+    }
+
+    @AfterEach
+    void encerrar() throws IOException {
+        smtp.close();
+    }
+
+    private DespachanteNotificacoes despachante(JavaMailSenderImpl mailSender) {
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.porta());
+        DespachanteNotificacoes despachante = new DespachanteNotificacoes(banco.repositorio, mailSender, banco);
+        ReflectionTestUtils.setField(despachante, "remetente", REMETENTE);
+        ReflectionTestUtils.setField(despachante, "tamanhoLote", 10);
+        ReflectionTestUtils.setField(despachante, "destinatariosPorMensagem", 2);
+        ReflectionTestUtils.setField(despachante, "mensagensPorSegundo", 1000);
+        ReflectionTestUtils.setField(despachante, "maxTentativas", 6);
+        ReflectionTestUtils.setField(despachante, "backoffInicialSegundos", 30L);
+        ReflectionTestUtils.setField(despachante, "reservaSegundos", 300L);
+        return despachante;
+    }
+
+    private static List<String> destinatarios(int quantidade) {
+        return IntStream.rangeClosed(1, quantidade).mapToObj(i -> "aluno" + i + "@teste.local").toList();
+    }
+
+    private void assertUmaEntregaPorDestinatario(List<String> destinatarios) {
+        Map<String, Integer> esperado = destinatarios.stream().collect(Collectors.toMap(d -> d, d -> 1));
+        Map<String, Integer> entregues = new HashMap<>(smtp.entregas);
+        entregues.remove(REMETENTE);
+        assertEquals(esperado, entregues);
+    }
+
+    @Test
+    void loteEnviadoEmBlocosDeCopiaOculta() {
+        List<String> destinatarios = destinatarios(5);
+        long id = banco.inserir(destinatarios);
+
+        despachante(new JavaMailSenderImpl()).despachar();
+
+        assertUmaEntregaPorDestinatario(destinatarios);
+        assertEquals(3, smtp.mensagens.get());
+        assertEquals(StatusNotificacao.ENVIADA, banco.linha(id).getStatus());
+    }
+
+    // Falha temporária do servidor no segundo bloco: a nova tentativa continua do terceiro destinatário
+    @Test
+    void novaTentativaNaoReenviaBlocosAceitos() {
+        List<String> destinatarios = destinatarios(5);
+        long id = banco.inserir(destinatarios);
+        smtp.falharMensagens.add(2);
+
+        DespachanteNotificacoes despachante = despachante(new JavaMailSenderImpl());
+        despachante.despachar();
+
+        Notificacao aposFalha = banco.linha(id);
+        assertEquals(StatusNotificacao.PENDENTE, aposFalha.getStatus());
+        assertEquals(2, aposFalha.getDestinatariosEnviados());
+        assertEquals(1, aposFalha.getTentativas());
+
+        banco.vencer(id);
+        despachante.despachar();
+
+        assertUmaEntregaPorDestinatario(destinatarios);
+        assertEquals(StatusNotificacao.ENVIADA, banco.linha(id).getStatus());
+    }
+
+    // A instância cai antes do terceiro bloco; outra retoma depois que a reserva vence
+    @Test
+    void quedaNoMeioDoLoteNaoReenviaBlocosAceitos() {
+        List<String> destinatarios = destinatarios(6);
+        long id = banco.inserir(destinatarios);
+        AtomicInteger envios = new AtomicInteger();
+        JavaMailSenderImpl caiNoTerceiro = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... mensagens) {
+                if (envios.incrementAndGet() == 3) throw new IllegalStateException("processo encerrado");
+                super.send(mensagens);
+            }
+        };
+
+        try {
+            despachante(caiNoTerceiro).despachar();
+        } catch (IllegalStateException esperado) {
+            // a thread do despachante morreu aqui
+        }
+        assertEquals(4, banco.linha(id).getDestinatariosEnviados());
+
+        banco.vencer(id);
+        despachante(new JavaMailSenderImpl()).despachar();
+
+        assertUmaEntregaPorDestinatario(destinatarios);
+        assertEquals(StatusNotificacao.ENVIADA, banco.linha(id).getStatus());
+    }
+
+    // Outra instância tomou a reserva vencida: esta não grava nada e para depois do bloco em andamento
+    @Test
+    void reservaPerdidaInterrompeOEnvio() {
+        List<String> destinatarios = destinatarios(6);
+        long id = banco.inserir(destinatarios);
+        JavaMailSenderImpl lento = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... mensagens) {
+                banco.linhas.get(id).setReserva("outra-instancia");
+                super.send(mensagens);
+            }
+        };
+
+        despachante(lento).despachar();
+
+        assertEquals(1, smtp.mensagens.get());
+        Notificacao linha = banco.linha(id);
+        assertEquals(0, linha.getDestinatariosEnviados());
+        assertEquals(StatusNotificacao.PENDENTE, linha.getStatus());
+        assertNull(linha.getEnviadoEm());
+    }
+
+    /**
+     * Tabela notificacao_outbox em memória. Cada transação registra as cópias que entregou e as grava no commit;
+     * fora de transação, alterações nas cópias não chegam à tabela.
+     */
+    private static final class BancoFalso implements PlatformTransactionManager {
+
+        private final Map<Long, Notificacao> linhas = new ConcurrentHashMap<>();
+        private final List<Notificacao> gerenciadas = new ArrayList<>();
+        private final NotificacaoRepository repositorio = mock(NotificacaoRepository.class);
+        private long proximoId = 1;
+
+        BancoFalso() {
+            when(repositorio.buscarParaReservar(any(LocalDateTime.class), anyInt())).thenAnswer(chamada -> {
+                LocalDateTime agora = chamada.getArgument(0);
+                return linhas.values().stream()
+                        .filter(n -> n.getStatus() == StatusNotificacao.PENDENTE && !n.getProximaTentativa().isAfter(agora))
+                        .limit(chamada.<Integer>getArgument(1))
+                        .map(this::gerenciar)
+                        .toList();
+            });
+            when(repositorio.buscarReservada(anyLong(), anyString())).thenAnswer(chamada -> {
+                Notificacao linha = linhas.get(chamada.<Long>getArgument(0));
+                if (linha == null || linha.getStatus() != StatusNotificacao.PENDENTE
+                        || !chamada.getArgument(1).equals(linha.getReserva())) {
+                    return Optional.empty();
+                }
+                return Optional.of(gerenciar(linha));
+            });
+        }
+
+        long inserir(List<String> destinatarios) {
+            long id = proximoId++;
+            linhas.put(id, Notificacao.builder()
+                    .id(id)
+                    .assunto("Projeto aprovado")
+                    .corpo("Seu projeto foi aprovado.")
+                    .destinatarios(String.join(",", destinatarios))
+                    .status(StatusNotificacao.PENDENTE)
+                    .proximaTentativa(LocalDateTime.now().minusSeconds(1))
+                    .criadoEm(LocalDateTime.now())
+                    .build());
+            return id;
+        }
+
+        Notificacao linha(long id) {
+            return copiar(linhas.get(id));
+        }
+
+        // Simula o fim do prazo da reserva ou do backoff
+        void vencer(long id) {
+            linhas.get(id).setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+        }
+
+        private Notificacao gerenciar(Notificacao linha) {
+            Notificacao copia = copiar(linha);
+            gerenciadas.add(copia);
+            return copia;
+        }
+
+        private static Notificacao copiar(Notificacao n) {
+            return new Notificacao(n.getId(), n.getAssunto(), n.getCorpo(), n.getDestinatarios(),
+                    n.getDestinatariosEnviados(), n.getStatus(), n.getTentativas(), n.getProximaTentativa(),
+                    n.getReserva(), n.getCriadoEm(), n.getEnviadoEm(), n.getUltimoErro());
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definicao) {
+            gerenciadas.clear();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            gerenciadas.forEach(n -> linhas.put(n.getId(), copiar(n)));
+            gerenciadas.clear();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            gerenciadas.clear();
+        }
+    }
+
+    /**
+     * Servidor SMTP mínimo (uma conexão por vez), suficiente para o JavaMailSender: conta cada destinatário de uma
+     * mensagem aceita e responde 451 nas mensagens de número listado em falharMensagens.
+     */
+    private static final class ServidorSmtp implements AutoCloseable {
+
+        private final ServerSocket servidor = new ServerSocket(0);
+        private final Map<String, Integer> entregas = new ConcurrentHashMap<>();
+        private final Set<Integer> falharMensagens = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger mensagens = new AtomicInteger();
+        private final AtomicInteger tentativas = new AtomicInteger();
+
+        ServidorSmtp() throws IOException {
+            Thread thread = new Thread(this::atender, "smtp-teste");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int porta() {
+            return servidor.getLocalPort();
+        }
+
+        private void atender() {
+            while (!servidor.isClosed()) {
+                try (Socket conexao = servidor.accept()) {
+                    conversar(conexao);
+                } catch (IOException e) {
+                    // servidor fechado ou cliente desconectado
+                }
+            }
+        }
+
+        private void conversar(Socket conexao) throws IOException {
+            BufferedReader entrada = new BufferedReader(
+                    new InputStreamReader(conexao.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter saida = new PrintWriter(
+                    new OutputStreamWriter(conexao.getOutputStream(), StandardCharsets.US_ASCII), true);
+            saida.print("220 localhost SMTP\r\n");
+            saida.flush();
+
+            List<String> destinatarios = new ArrayList<>();
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                String comando = linha.toUpperCase(Locale.ROOT);
+                if (comando.startsWith("RCPT TO:")) {
+                    destinatarios.add(linha.substring(linha.indexOf('<') + 1, linha.indexOf('>')));
+                    responder(saida, "250 OK");
+                } else if (comando.startsWith("MAIL FROM:") || comando.startsWith("RSET")) {
+                    destinatarios.clear();
+                    responder(saida, "250 OK");
+                } else if (comando.equals("DATA")) {
+                    responder(saida, "354 Fim com <CRLF>.<CRLF>");
+                    while ((linha = entrada.readLine()) != null && !linha.equals(".")) {
+                        // corpo da mensagem
+                    }
+                    if (falharMensagens.contains(tentativas.incrementAndGet())) {
+                        responder(saida, "451 4.3.0 Falha temporaria");
+                    } else {
+                        mensagens.incrementAndGet();
+                        destinatarios.forEach(d -> entregas.merge(d, 1, Integer::sum));
+                        responder(saida, "250 OK");
+                    }
+                    destinatarios.clear();
+                } else if (comando.startsWith("QUIT")) {
+                    responder(saida, "221 Tchau");
+                    return;
+                } else {
+                    // EHLO/HELO, NOOP e demais: aceitos sem extensões
+                    responder(saida, "250 OK");
+                }
+            }
+        }
+
+        private static void responder(PrintWriter saida, String resposta) {
+            saida.print(resposta + "\r\n");
+            saida.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            servidor.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.armazenamento.ArmazenamentoArquivos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeradorMiniaturasTest {
+
+    @TempDir
+    Path pasta;
+
+    private final ArmazenamentoArquivos armazenamento = mock(ArmazenamentoArquivos.class);
+    private GeradorMiniaturas gerador;
+
+    @BeforeEach
+    void preparar() {
+        gerador = new GeradorMiniaturas(armazenamento, pasta.toString(), 1, 10);
+        ReflectionTestUtils.setField(gerador, "tamanhoMaximo", 64);
+        ReflectionTestUtils.setField(gerador, "maxTentativas", 3);
+    }
+
+    @AfterEach
+    void encerrar() {
+        gerador.encerrar();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        for (int i = 0; i < 200 && !condicao.getAsBoolean(); i++) {
+            Thread.sleep(25);
+        }
+        assertTrue(condicao.getAsBoolean(), "condição não atingida a tempo");
+    }
+
+    @Test
+    void imagemValidaGeraMiniatura() throws IOException, InterruptedException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB), "png", png);
+        when(armazenamento.abrir("ok")).thenAnswer(chamada -> new ByteArrayInputStream(png.toByteArray()));
+
+        gerador.agendar("ok", null);
+
+        aguardar(() -> gerador.localizar("ok") != null);
+        BufferedImage miniatura = ImageIO.read(gerador.localizar("ok").toFile());
+        assertEquals(64, miniatura.getWidth());
+        assertFalse(gerador.falhou("ok"));
+    }
+
+    // Imagem que não decodifica: marcada uma vez e não é mais agendada a cada consulta
+    @Test
+    void imagemInvalidaEhMarcadaSemNovasTentativas() throws IOException, InterruptedException {
+        byte[] corrompida = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+        when(armazenamento.abrir("ruim")).thenAnswer(chamada -> new ByteArrayInputStream(corrompida));
+
+        gerador.agendar("ruim", null);
+        aguardar(() -> gerador.falhou("ruim"));
+
+        gerador.agendar("ruim", null);
+        gerador.agendar("ruim", null);
+        Thread.sleep(100);
+        verify(armazenamento, times(1)).abrir("ruim");
+        assertNull(gerador.localizar("ruim"));
+
+        gerador.remover("ruim");
+        assertFalse(gerador.falhou("ruim"));
+    }
+
+    // Armazenamento indisponível não é falha permanente
+    @Test
+    void falhaAoLerDoArmazenamentoNaoMarcaAImagem() throws IOException, InterruptedException {
+        ReflectionTestUtils.setField(gerador, "maxTentativas", 1);
+        when(armazenamento.abrir("fora")).thenThrow(new IOException("armazenamento fora do ar"));
+
+        gerador.agendar("fora", null);
+        Thread.sleep(200);
+
+        assertFalse(gerador.falhou("fora"));
+        gerador.agendar("fora", null);
+        Thread.sleep(200);
+        verify(armazenamento, times(2)).abrir("fora");
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.DiaSemana;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.Monitoria;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusMonitoria;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Índice puro, sem Spring nem banco: o repositório só é usado por reconstruir().
+ * Datas de 2025: 01/03 é sábado, então as segundas de março são 3, 10, 17, 24 e 31.
+ */
+class IndiceOcupacaoSalasTest {
+
+    private final IndiceOcupacaoSalas indice = new IndiceOcupacaoSalas(null);
+
+    private static Monitoria monitoria(long id, String sala, String inicio, String termino,
+                                       String horarioInicio, String horarioTermino, DiaSemana... dias) {
+        Monitoria monitoria = new Monitoria();
+        monitoria.setId(id);
+        monitoria.setSala(sala);
+        monitoria.setDataInicio(LocalDate.parse(inicio));
+        monitoria.setDataTermino(LocalDate.parse(termino));
+        monitoria.setHorarioInicio(LocalTime.parse(horarioInicio));
+        monitoria.setHorarioTermino(LocalTime.parse(horarioTermino));
+        monitoria.setDiasSemana(EnumSet.of(dias[0], dias));
+        return monitoria;
+    }
+
+    private Long conflito(String sala, String inicio, String termino, String horarioInicio, String horarioTermino) {
+        return indice.verificarConflito(IndiceOcupacaoSalas.Reserva.de(
+                monitoria(99, sala, inicio, termino, horarioInicio, horarioTermino, DiaSemana.SEGUNDA)));
+    }
+
+    private boolean livre(String sala, String data, String inicio, String termino) {
+        return indice.salasLivres(LocalDate.parse(data), LocalTime.parse(inicio), LocalTime.parse(termino)).contains(sala);
+    }
+
+    @Test
+    void horariosSaoArredondadosParaIntervalosDeCincoMinutos() {
+        // 10:03–10:07 ocupa os intervalos inteiros de 10:00 a 10:10
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:03", "10:07", DiaSemana.SEGUNDA));
+
+        assertEquals(1L, conflito("Sala 1", "2025-03-01", "2025-03-31", "10:09", "10:30"));
+        assertEquals(1L, conflito("Sala 1", "2025-03-01", "2025-03-31", "09:30", "10:01"));
+        assertNull(conflito("Sala 1", "2025-03-01", "2025-03-31", "10:10", "10:30"));
+        assertNull(conflito("Sala 1", "2025-03-01", "2025-03-31", "09:30", "10:00"));
+        // O nome da sala é comparado normalizado
+        assertEquals(1L, conflito("  SALA 1 ", "2025-03-01", "2025-03-31", "10:00", "10:05"));
+    }
+
+    @Test
+    void periodosDiferentesDividemAsFaixasDeDatas() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+        indice.reservar(monitoria(2, "Sala 1", "2025-03-15", "2025-04-30", "14:00", "15:00", DiaSemana.SEGUNDA));
+        indice.reservar(monitoria(3, "Sala 2", "2025-03-01", "2025-06-30", "08:00", "09:00", DiaSemana.TERCA));
+
+        // 10/03: só a monitoria 1
+        assertFalse(livre("Sala 1", "2025-03-10", "10:30", "10:45"));
+        assertTrue(livre("Sala 1", "2025-03-10", "14:00", "15:00"));
+        // 17/03: as duas
+        assertFalse(livre("Sala 1", "2025-03-17", "10:30", "10:45"));
+        assertFalse(livre("Sala 1", "2025-03-17", "14:00", "14:30"));
+        // 07/04: a monitoria 1 já terminou
+        assertTrue(livre("Sala 1", "2025-04-07", "10:00", "11:00"));
+        assertFalse(livre("Sala 1", "2025-04-28", "14:00", "15:00"));
+        // 05/05: depois das duas
+        assertTrue(livre("Sala 1", "2025-05-05", "10:00", "15:00"));
+        // Terça não é dia das monitorias da sala 1
+        assertTrue(livre("Sala 1", "2025-03-18", "10:00", "15:00"));
+        assertFalse(livre("Sala 2", "2025-03-18", "08:30", "08:35"));
+
+        assertNull(conflito("Sala 1", "2025-04-01", "2025-04-30", "10:00", "11:00"));
+        assertEquals(1L, conflito("Sala 1", "2025-03-25", "2025-04-30", "10:00", "11:00"));
+        assertNull(conflito("Sala 1", "2025-03-01", "2025-03-14", "14:00", "15:00"));
+    }
+
+    @Test
+    void reservaEmConflitoNaoAlteraOIndice() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+
+        ValidationException erro = assertThrows(ValidationException.class, () -> indice.reservar(
+                monitoria(2, "Sala 1", "2025-03-20", "2025-04-30", "10:30", "12:00", DiaSemana.SEGUNDA)));
+        assertTrue(erro.getMessage().contains("monitoria 1"));
+        assertTrue(livre("Sala 1", "2025-04-07", "10:30", "12:00"));
+    }
+
+    @Test
+    void atualizacaoDaMesmaMonitoriaNaoConflitaConsigoMesma() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:30", "11:30", DiaSemana.SEGUNDA));
+
+        assertTrue(livre("Sala 1", "2025-03-10", "10:00", "10:30"));
+        assertFalse(livre("Sala 1", "2025-03-10", "11:00", "11:30"));
+    }
+
+    @Test
+    void rollbackRestauraAReservaAnterior() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+
+        concluirTransacao(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "16:00", "17:00", DiaSemana.SEGUNDA));
+            indice.reservar(monitoria(2, "Sala 1", "2025-03-01", "2025-03-31", "08:00", "09:00", DiaSemana.SEGUNDA));
+            // Antes do fim da transação o índice já reflete as reservas novas
+            assertFalse(livre("Sala 1", "2025-03-10", "16:00", "17:00"));
+        });
+
+        assertFalse(livre("Sala 1", "2025-03-10", "10:00", "11:00"));
+        assertTrue(livre("Sala 1", "2025-03-10", "16:00", "17:00"));
+        assertTrue(livre("Sala 1", "2025-03-10", "08:00", "09:00"));
+        assertNull(conflito("Sala 1", "2025-03-01", "2025-03-31", "08:00", "09:00"));
+    }
+
+    @Test
+    void commitMantemAReservaNova() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED, () ->
+                indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "16:00", "17:00", DiaSemana.SEGUNDA)));
+
+        assertTrue(livre("Sala 1", "2025-03-10", "10:00", "11:00"));
+        assertFalse(livre("Sala 1", "2025-03-10", "16:00", "17:00"));
+    }
+
+    @Test
+    void removerRefazAsFaixasComAsReservasRestantes() {
+        indice.reservar(monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA));
+        indice.reservar(monitoria(2, "Sala 1", "2025-03-15", "2025-04-30", "14:00", "15:00", DiaSemana.SEGUNDA));
+        indice.reservar(monitoria(3, "Sala 1", "2025-03-01", "2025-04-30", "08:00", "09:00",
+                DiaSemana.SEGUNDA, DiaSemana.QUARTA));
+        indice.reservar(monitoria(4, "Sala 2", "2025-03-01", "2025-06-30", "08:00", "09:00", DiaSemana.TERCA));
+
+        indice.remover(1L);
+        assertTrue(livre("Sala 1", "2025-03-17", "10:00", "11:00"));
+        assertFalse(livre("Sala 1", "2025-03-17", "14:00", "15:00"));
+        assertFalse(livre("Sala 1", "2025-03-10", "08:00", "09:00"));
+        assertFalse(livre("Sala 1", "2025-04-14", "08:00", "09:00"));
+        assertFalse(livre("Sala 1", "2025-04-16", "08:00", "09:00"));
+        assertEquals(2L, conflito("Sala 1", "2025-04-01", "2025-04-30", "14:30", "15:30"));
+
+        indice.remover(3L);
+        indice.remover(2L);
+        // Sem reservas a sala deixa de ser conhecida
+        List<String> livres = indice.salasLivres(LocalDate.parse("2025-03-17"), LocalTime.NOON, LocalTime.of(13, 0));
+        assertEquals(List.of("Sala 2"), livres);
+        assertNull(conflito("Sala 1", "2025-03-01", "2025-04-30", "00:00", "23:55"));
+    }
+
+    @Test
+    void monitoriaCanceladaLiberaASala() {
+        Monitoria monitoria = monitoria(1, "Sala 1", "2025-03-01", "2025-03-31", "10:00", "11:00", DiaSemana.SEGUNDA);
+        indice.reservar(monitoria);
+        indice.reservar(monitoria(2, "Sala 1", "2025-03-01", "2025-03-31", "14:00", "15:00", DiaSemana.SEGUNDA));
+
+        monitoria.setStatus(StatusMonitoria.CANCELADA);
+        indice.reservar(monitoria);
+
+        assertTrue(livre("Sala 1", "2025-03-10", "10:00", "11:00"));
+    }
+
+    // Simula o fim da transação chamando as sincronizações registradas durante a ação
+    private static void concluirTransacao(int status, Runnable acao) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            acao.run();
+            for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacao.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndicePrefixosTest {
+
+    private static List<Long> ids(List<IndicePrefixos.Sugestao<Long>> sugestoes) {
+        return sugestoes.stream().map(IndicePrefixos.Sugestao::id).toList();
+    }
+
+    private static IndicePrefixos<Long> indice() {
+        Map<Long, String> nomes = new LinkedHashMap<>();
+        nomes.put(1L, "Ciências Biológicas");
+        nomes.put(2L, "Biomedicina");
+        nomes.put(3L, "Física");
+        nomes.put(4L, "Biologia Marinha");
+        IndicePrefixos<Long> indice = new IndicePrefixos<>();
+        indice.substituir(nomes);
+        return indice;
+    }
+
+    @Test
+    void nomeInteiroVemAntesDasPalavras() {
+        // "bio" casa o início de Biologia Marinha e Biomedicina (ordem da chave) e a segunda palavra de Ciências Biológicas
+        assertEquals(List.of(4L, 2L, 1L), ids(indice().buscar("bio", 10)));
+    }
+
+    @Test
+    void ignoraAcentosEMaiusculas() {
+        assertEquals(List.of(1L), ids(indice().buscar("CIÊNCIAS bio", 10)));
+        assertEquals(List.of(3L), ids(indice().buscar("fis", 10)));
+    }
+
+    @Test
+    void respeitaLimiteESemRepetir() {
+        assertEquals(List.of(4L, 2L), ids(indice().buscar("bio", 2)));
+
+        // Casa pelo nome inteiro e pela segunda palavra, mas aparece uma vez só
+        IndicePrefixos<Long> indice = new IndicePrefixos<>();
+        indice.atualizar(9L, "Biologia Bioquímica");
+        assertEquals(List.of(9L), ids(indice.buscar("bio", 10)));
+    }
+
+    @Test
+    void prefixoVazioOuSemResultado() {
+        assertTrue(indice().buscar("  ", 10).isEmpty());
+        assertTrue(indice().buscar("quimica", 10).isEmpty());
+        assertTrue(indice().buscar("bio", 0).isEmpty());
+    }
+
+    @Test
+    void atualizarMesclaNaPosicaoOrdenada() {
+        IndicePrefixos<Long> indice = indice();
+        indice.atualizar(5L, "Bioquímica");
+        assertEquals(List.of(4L, 2L, 5L, 1L), ids(indice.buscar("bio", 10)));
+
+        // Renomear troca as entradas antigas do id pelas novas
+        indice.atualizar(2L, "Zoologia Biomédica");
+        assertEquals(List.of(4L, 5L, 1L, 2L), ids(indice.buscar("bio", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("zoo", 10)));
+        assertEquals("Zoologia Biomédica", indice.buscar("zoo", 10).get(0).nome());
+    }
+
+    @Test
+    void removerTiraNomeEPalavras() {
+        IndicePrefixos<Long> indice = indice();
+        indice.remover(1L);
+        assertEquals(List.of(4L, 2L), ids(indice.buscar("bio", 10)));
+        assertTrue(indice.buscar("ciencias", 10).isEmpty());
+    }
+
+    @Test
+    void nomesIguaisDeIdsDiferentesConvivem() {
+        IndicePrefixos<Long> indice = new IndicePrefixos<>();
+        indice.atualizar(7L, "Física");
+        indice.atualizar(3L, "Física");
+        assertEquals(2, indice.buscar("fisica", 10).size());
+        indice.remover(7L);
+        assertEquals(List.of(3L), ids(indice.buscar("fisica", 10)));
+    }
+}
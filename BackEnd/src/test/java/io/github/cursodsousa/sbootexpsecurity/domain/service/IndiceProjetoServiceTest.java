@@ -0,0 +1,65 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusProjeto;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.ProjetoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceProjetoServiceTest {
+
+    private final ProjetoRepository projetoRepository = mock(ProjetoRepository.class);
+    private final IndiceProjetoService indice = new IndiceProjetoService(projetoRepository);
+
+    private static Object[] linha(long id, String palavrasChave) {
+        return new Object[]{id, "Biologia", "Pesquisa", StatusProjeto.APROVADO, palavrasChave};
+    }
+
+    private static IndiceProjetoService.Entrada entrada(long id, String termo) {
+        return new IndiceProjetoService.Entrada(id, "Biologia", "Pesquisa", StatusProjeto.APROVADO, Set.of(termo));
+    }
+
+    private long[] buscar(String consulta) {
+        return indice.buscar(consulta, null, null, null, 0, 10).ids();
+    }
+
+    @Test
+    void reconstrucaoMontaOIndiceComALeitura() {
+        when(projetoRepository.listarDadosIndice()).thenReturn(List.of(linha(1, "genética, solo"), linha(2, "solo")));
+
+        indice.reconstruir();
+
+        assertArrayEquals(new long[]{2, 1}, buscar("solo"));
+        assertArrayEquals(new long[]{1}, buscar("Genética"));
+    }
+
+    // Alterações confirmadas enquanto a leitura acontecia não podem ser perdidas na troca do índice
+    @Test
+    void alteracoesDuranteAReconstrucaoSaoReaplicadas() {
+        when(projetoRepository.listarDadosIndice()).thenAnswer(invocacao -> {
+            List<Object[]> lidos = new ArrayList<>();
+            lidos.add(linha(1, "solo"));
+            lidos.add(linha(2, "solo"));
+            // Projeto 3 criado, 1 alterado e 2 excluído depois da leitura, antes da troca
+            indice.atualizar(entrada(3, "solo"));
+            indice.atualizar(entrada(1, "clima"));
+            indice.remover(2L);
+            return lidos;
+        });
+
+        indice.reconstruir();
+
+        assertArrayEquals(new long[]{3}, buscar("solo"));
+        assertArrayEquals(new long[]{1}, buscar("clima"));
+
+        // Fora da reconstrução nada fica guardado
+        indice.atualizar(entrada(4, "solo"));
+        assertArrayEquals(new long[]{4, 3}, buscar("solo"));
+    }
+}
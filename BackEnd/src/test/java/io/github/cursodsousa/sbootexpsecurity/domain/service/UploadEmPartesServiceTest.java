@@ -0,0 +1,205 @@
+package io.github.cursodsousa.sbootexpsecurity.domain.service;
+
+import io.github.cursodsousa.sbootexpsecurity.api.dto.DocumentoDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.IniciarUploadDTO;
+import io.github.cursodsousa.sbootexpsecurity.api.dto.UploadSessaoDTO;
+import io.github.cursodsousa.sbootexpsecurity.config.ValidacaoException;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.StatusUpload;
+import io.github.cursodsousa.sbootexpsecurity.domain.entity.UploadSessao;
+import io.github.cursodsousa.sbootexpsecurity.domain.repository.UploadSessaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Upload em partes sem Spring nem banco: o repositório guarda a sessão em memória e as transações são simuladas
+ * por um PlatformTransactionManager de mentira.
+ */
+class UploadEmPartesServiceTest {
+
+    private static final int TAMANHO_CHUNK = 1000;
+
+    @TempDir
+    Path pasta;
+
+    private final UploadSessaoRepository repositorio = mock(UploadSessaoRepository.class);
+    private final DocumentoService documentoService = mock(DocumentoService.class);
+    private final AtomicReference<UploadSessao> sessao = new AtomicReference<>();
+    private UploadEmPartesService service;
+
+    @BeforeEach
+    void preparar() {
+        when(documentoService.getDiretorioTemporario()).thenReturn(pasta);
+        service = new UploadEmPartesService(repositorio, documentoService, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "tamanhoChunk", TAMANHO_CHUNK);
+        ReflectionTestUtils.setField(service, "tamanhoMaximo", 1_000_000L);
+
+        when(repositorio.save(any())).thenAnswer(chamada -> {
+            UploadSessao nova = chamada.getArgument(0);
+            nova.setId("s1");
+            sessao.set(nova);
+            return nova;
+        });
+        when(repositorio.findById("s1")).thenAnswer(chamada -> Optional.ofNullable(sessao.get()));
+        when(repositorio.buscarParaAtualizar("s1")).thenAnswer(chamada -> Optional.ofNullable(sessao.get()));
+        when(repositorio.buscarPartes("s1")).thenAnswer(chamada -> sessao.get().getChunksRecebidos());
+        when(repositorio.buscarPartesAbertasParaAtualizar("s1")).thenAnswer(chamada ->
+                sessao.get().getStatus() == StatusUpload.ABERTO ? sessao.get().getChunksRecebidos() : null);
+        doAnswer(chamada -> {
+            sessao.get().setChunksRecebidos(chamada.getArgument(1));
+            sessao.get().setAtualizadoEm(chamada.getArgument(2));
+            return null;
+        }).when(repositorio).atualizarPartes(eq("s1"), any(), any(LocalDateTime.class));
+    }
+
+    private byte[] iniciar(int tamanho) {
+        byte[] conteudo = new byte[tamanho];
+        new Random(42).nextBytes(conteudo);
+        IniciarUploadDTO dto = new IniciarUploadDTO();
+        dto.setNomeArquivo("dados.bin");
+        dto.setTipoArquivo("application/octet-stream");
+        dto.setTamanho((long) tamanho);
+        service.iniciar(dto);
+        return conteudo;
+    }
+
+    private UploadSessaoDTO enviar(byte[] conteudo, int indice) {
+        byte[] parte = parte(conteudo, indice);
+        return service.receberChunk("s1", indice, sha256(parte), new ByteArrayInputStream(parte));
+    }
+
+    private static byte[] parte(byte[] conteudo, int indice) {
+        int inicio = indice * TAMANHO_CHUNK;
+        return Arrays.copyOfRange(conteudo, inicio, Math.min(inicio + TAMANHO_CHUNK, conteudo.length));
+    }
+
+    @Test
+    void partesForaDeOrdemMontamOArquivoEOHash() throws IOException {
+        byte[] conteudo = iniciar(3500);
+        enviar(conteudo, 2);
+        enviar(conteudo, 0);
+        enviar(conteudo, 3);
+        UploadSessaoDTO dto = enviar(conteudo, 1);
+        assertEquals(List.of(), dto.getChunksPendentes());
+
+        AtomicReference<byte[]> registrado = new AtomicReference<>();
+        when(documentoService.registrarArquivo(any(), anyString(), anyString(), anyString())).thenAnswer(chamada -> {
+            Path arquivo = chamada.getArgument(0);
+            registrado.set(Files.readAllBytes(arquivo));
+            Files.delete(arquivo);
+            return new DocumentoDTO();
+        });
+        service.concluir("s1");
+
+        assertArrayEquals(conteudo, registrado.get());
+        verify(documentoService).registrarArquivo(any(), eq("dados.bin"), eq("application/octet-stream"),
+                eq(sha256(conteudo)));
+        assertEquals(StatusUpload.CONCLUIDO, sessao.get().getStatus());
+        assertFalse(Files.exists(pasta.resolve("s1.part")));
+    }
+
+    // O registro pode consumir o arquivo (gzip, move) antes de falhar; o .part continua para a nova tentativa
+    @Test
+    void falhaNoRegistroMantemAsPartes() throws IOException {
+        byte[] conteudo = iniciar(1500);
+        enviar(conteudo, 0);
+        enviar(conteudo, 1);
+        when(documentoService.registrarArquivo(any(), anyString(), anyString(), anyString())).thenAnswer(chamada -> {
+            Files.delete(chamada.<Path>getArgument(0));
+            throw new IllegalStateException("armazenamento fora do ar");
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.concluir("s1"));
+
+        assertEquals(StatusUpload.ABERTO, sessao.get().getStatus());
+        assertEquals(List.of(), service.consultar("s1").getChunksPendentes());
+        assertArrayEquals(conteudo, Files.readAllBytes(pasta.resolve("s1.part")));
+        try (var sobras = Files.list(pasta)) {
+            assertEquals(List.of(pasta.resolve("s1.part")), sobras.toList());
+        }
+    }
+
+    @Test
+    void parcialPerdidoZeraAsPartes() {
+        byte[] conteudo = iniciar(1500);
+        enviar(conteudo, 0);
+        enviar(conteudo, 1);
+        when(documentoService.registrarArquivo(any(), anyString(), anyString(), anyString())).thenAnswer(chamada -> {
+            Files.delete(pasta.resolve("s1.part"));
+            throw new IllegalStateException("falha");
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.concluir("s1"));
+
+        assertEquals(StatusUpload.ABERTO, sessao.get().getStatus());
+        assertEquals(List.of(0, 1), service.consultar("s1").getChunksPendentes());
+        assertEquals(List.of(1), enviar(conteudo, 0).getChunksPendentes());
+    }
+
+    @Test
+    void checksumErradoNaoMarcaAParte() {
+        byte[] conteudo = iniciar(2500);
+        byte[] parte = parte(conteudo, 1);
+
+        assertThrows(ValidacaoException.class, () ->
+                service.receberChunk("s1", 1, sha256(new byte[1]), new ByteArrayInputStream(parte)));
+        assertEquals(List.of(0, 1, 2), service.consultar("s1").getChunksPendentes());
+
+        assertEquals(List.of(0, 2), enviar(conteudo, 1).getChunksPendentes());
+    }
+
+    @Test
+    void parteJaConferidaNaoEhSobrescrita() throws IOException {
+        byte[] conteudo = iniciar(2000);
+        enviar(conteudo, 0);
+
+        byte[] outra = new byte[TAMANHO_CHUNK];
+        service.receberChunk("s1", 0, sha256(outra), new ByteArrayInputStream(outra));
+
+        assertArrayEquals(parte(conteudo, 0), Arrays.copyOf(Files.readAllBytes(pasta.resolve("s1.part")), TAMANHO_CHUNK));
+    }
+
+    @Test
+    void parteComTamanhoErradoEhRecusada() {
+        iniciar(2000);
+        byte[] curta = new byte[10];
+        assertThrows(ValidacaoException.class, () ->
+                service.receberChunk("s1", 0, sha256(curta), new ByteArrayInputStream(curta)));
+    }
+
+    private static String sha256(byte[] dados) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}